@@ -2,8 +2,12 @@ package br.com.nathan.desafiosergipetec;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableAsync // Permite que os ouvintes de eventos rodem fora da thread da requisição
+@EnableScheduling // Habilita as tarefas em segundo plano (@Scheduled)
 public class GestaoDeVendasDesafioTecnicoSergipeTecApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,154 @@
+package br.com.nathan.desafiosergipetec.admissao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Controle de admissão na frente do pool de conexões do banco.
+ *
+ * Sem este filtro, numa rajada de acessos todas as threads do Tomcat ficam presas esperando uma conexão do Hikari,
+ * e as buscas pesadas de pedidos acabam atrasando a criação de pedidos. Aqui cada grupo de endpoints (GrupoAdmissao)
+ * tem o seu LimitadorAdaptativo, e o excesso é recusado rapidamente com 503 + Retry-After,
+ * em vez de se acumular até estourar os tempos de resposta de todos.
+ * Nas respostas assíncronas (streaming), a vaga fica ocupada até a resposta terminar, não apenas até a thread sair do filtro.
+ *
+ * Métricas publicadas (/actuator/metrics):
+ * - admissao.requisicoes (tags grupo e resultado = admitida | rejeitada)
+ * - admissao.limite e admissao.em_uso (tag grupo)
+ */
+@Component
+public class FiltroControleAdmissao extends OncePerRequestFilter {
+
+    private final boolean habilitado;
+    private final int segundosNovaTentativa;
+    private final Map<GrupoAdmissao, LimitadorAdaptativo> limitadores = new EnumMap<>(GrupoAdmissao.class);
+    private final Map<GrupoAdmissao, Counter> admitidas = new EnumMap<>(GrupoAdmissao.class);
+    private final Map<GrupoAdmissao, Counter> rejeitadas = new EnumMap<>(GrupoAdmissao.class);
+
+    public FiltroControleAdmissao(MeterRegistry registroMetricas,
+            @Value("${admissao.habilitada:true}") boolean habilitado,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanhoPool,
+            @Value("${admissao.segundos-nova-tentativa:1}") int segundosNovaTentativa) {
+        this.habilitado = habilitado;
+        this.segundosNovaTentativa = segundosNovaTentativa;
+
+        for (GrupoAdmissao grupo : GrupoAdmissao.values()) {
+            LimitadorAdaptativo limitador = grupo.criarLimitador(tamanhoPool);
+            String nomeGrupo = grupo.name().toLowerCase();
+
+            limitadores.put(grupo, limitador);
+            admitidas.put(grupo, Counter.builder("admissao.requisicoes")
+                    .tag("grupo", nomeGrupo).tag("resultado", "admitida").register(registroMetricas));
+            rejeitadas.put(grupo, Counter.builder("admissao.requisicoes")
+                    .tag("grupo", nomeGrupo).tag("resultado", "rejeitada").register(registroMetricas));
+            Gauge.builder("admissao.limite", limitador, LimitadorAdaptativo::getLimite)
+                    .tag("grupo", nomeGrupo).register(registroMetricas);
+            Gauge.builder("admissao.em_uso", limitador, LimitadorAdaptativo::getEmUso)
+                    .tag("grupo", nomeGrupo).register(registroMetricas);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || GrupoAdmissao.daRequisicao(request.getMethod(), request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GrupoAdmissao grupo = GrupoAdmissao.daRequisicao(request.getMethod(), request.getRequestURI());
+        LimitadorAdaptativo limitador = limitadores.get(grupo);
+
+        if (!admitir(grupo, limitador)) {
+            rejeitadas.get(grupo).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundosNovaTentativa));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Servidor sobrecarregado, tente novamente em instantes.");
+            return;
+        }
+
+        admitidas.get(grupo).increment();
+        String rota = rotaDaRequisicao(request.getMethod(), request.getRequestURI());
+        long inicio = System.nanoTime();
+        boolean liberarAoSair = true;
+        try {
+            chain.doFilter(request, response);
+
+            // Respostas assíncronas (ex: StreamingResponseBody do relatório mensal) continuam usando o banco ou
+            // o disco depois que a thread do Tomcat sai do filtro: a vaga só é liberada quando a resposta termina
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarAoConcluir(limitador, rota, inicio));
+                liberarAoSair = false;
+            }
+        } finally {
+            if (liberarAoSair) {
+                limitador.liberar(rota, System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    // Libera a vaga de uma requisição assíncrona. O onComplete é chamado uma única vez, inclusive após erro ou timeout.
+    private record LiberarAoConcluir(LimitadorAdaptativo limitador, String rota, long inicio) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent evento) {
+            limitador.liberar(rota, System.nanoTime() - inicio);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent evento) {
+        }
+
+        @Override
+        public void onError(AsyncEvent evento) {
+        }
+
+        // Um novo startAsync descarta os ouvintes registrados: este se registra de novo para continuar com a vaga
+        @Override
+        public void onStartAsync(AsyncEvent evento) {
+            evento.getAsyncContext().addListener(this);
+        }
+    }
+
+    // Rota usada como referência de latência: os trechos numéricos (IDs) são trocados por {id}
+    static String rotaDaRequisicao(String metodo, String caminho) {
+        String[] trechos = caminho.split("/", -1);
+        for (int i = 0; i < trechos.length; i++) {
+            if (!trechos[i].isEmpty() && trechos[i].chars().allMatch(Character::isDigit)) {
+                trechos[i] = "{id}";
+            }
+        }
+        return metodo + " " + String.join("/", trechos);
+    }
+
+    private boolean admitir(GrupoAdmissao grupo, LimitadorAdaptativo limitador) {
+        // Prioridade: consultas de pedidos cedem a vez enquanto houver pedidos esperando para serem salvos
+        if (grupo == GrupoAdmissao.PEDIDOS_CONSULTA && limitadores.get(GrupoAdmissao.PEDIDOS_SALVAR).temAguardando()) {
+            return false;
+        }
+
+        try {
+            return limitador.adquirir();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.nathan.desafiosergipetec.admissao;
+
+/**
+ * Grupos de endpoints com limites de concorrência próprios, em ordem de prioridade.
+ *
+ * O pool de conexões (Hikari) é repartido entre os grupos: a soma dos limites máximos nunca passa do tamanho do pool,
+ * então as conexões de um grupo não podem ser tomadas pelos outros e a concorrência no banco fica limitada ao pool.
+ * - PEDIDOS_SALVAR (criação de pedidos): 40% do pool (mais o que sobrar dos arredondamentos) e a fila mais longa,
+ * pois é a operação que gera receita. Essa parte fica reservada, mesmo com as consultas no limite.
+ * - GERAL (cadastros e consultas simples): 30% do pool.
+ * - PEDIDOS_CONSULTA (buscas, histórico por cliente e relatórios de pedidos): 30% do pool, com fila curta,
+ * e é rejeitado de imediato enquanto houver pedidos aguardando para serem salvos.
+ * Cada grupo recebe ao menos uma conexão, então a repartição exige um pool de pelo menos 3 conexões.
+ */
+public enum GrupoAdmissao {
+
+    PEDIDOS_SALVAR(0.4, 100, 2000),
+    GERAL(0.3, 50, 500),
+    PEDIDOS_CONSULTA(0.3, 20, 100);
+
+    private final double fracaoDoPool;
+    private final int tamanhoFila;
+    private final long esperaMaximaMillis;
+
+    GrupoAdmissao(double fracaoDoPool, int tamanhoFila, long esperaMaximaMillis) {
+        this.fracaoDoPool = fracaoDoPool;
+        this.tamanhoFila = tamanhoFila;
+        this.esperaMaximaMillis = esperaMaximaMillis;
+    }
+
+    LimitadorAdaptativo criarLimitador(int tamanhoPool) {
+        return new LimitadorAdaptativo(1, limiteMaximo(tamanhoPool), tamanhoFila, esperaMaximaMillis);
+    }
+
+    /**
+     * Conexões do pool destinadas ao grupo. Os demais grupos ficam com a parte inteira da sua fração
+     * e a criação de pedidos com todo o restante, de forma que a soma dos grupos seja exatamente o pool.
+     */
+    int limiteMaximo(int tamanhoPool) {
+        if (this != PEDIDOS_SALVAR) {
+            return Math.max(1, (int) (tamanhoPool * fracaoDoPool));
+        }
+        int demaisGrupos = 0;
+        for (GrupoAdmissao grupo : values()) {
+            if (grupo != PEDIDOS_SALVAR) {
+                demaisGrupos += grupo.limiteMaximo(tamanhoPool);
+            }
+        }
+        return Math.max(1, tamanhoPool - demaisGrupos);
+    }
+
+    /**
+     * Identifica o grupo de uma requisição da API. Devolve null para as rotas que não usam o banco
+     * na requisição (analítico e rankings, respondidos da memória), que não passam pelo controle.
+     */
+    static GrupoAdmissao daRequisicao(String metodo, String caminho) {
+        if (!caminho.startsWith("/api/") || caminho.startsWith("/api/analytics") || caminho.startsWith("/api/ranking")) {
+            return null;
+        }
+        if ("POST".equals(metodo) && caminho.equals("/api/pedidos")) {
+            return PEDIDOS_SALVAR;
+        }
+        if ("GET".equals(metodo) && (caminho.equals("/api/pedidos/buscar") || caminho.equals("/api/pedidos/todos")
+                || caminho.startsWith("/api/pedidos/relatorios/") || ehHistoricoCliente(caminho))) {
+            return PEDIDOS_CONSULTA;
+        }
+        return GERAL;
+    }
+
+    // Histórico de pedidos de um cliente: /api/clientes/{id}/pedidos
+    private static boolean ehHistoricoCliente(String caminho) {
+        return caminho.startsWith("/api/clientes/") && caminho.endsWith("/pedidos")
+                && caminho.indexOf('/', "/api/clientes/".length()) == caminho.length() - "/pedidos".length();
+    }
+}
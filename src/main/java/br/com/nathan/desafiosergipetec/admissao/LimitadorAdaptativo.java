@@ -0,0 +1,163 @@
+package br.com.nathan.desafiosergipetec.admissao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limitador de concorrência com limite adaptativo (AIMD guiado pela latência).
+ *
+ * Funcionamento:
+ * - Até "limite" requisições executam ao mesmo tempo. As excedentes aguardam numa fila limitada,
+ * por um tempo máximo. Fila cheia ou tempo esgotado significa rejeição imediata (load shedding).
+ * - A cada requisição concluída, a latência é comparada com a referência da própria rota: a média de longo prazo
+ * (média móvel exponencial lenta) das latências daquela rota. Rotas de custo muito diferente no mesmo grupo
+ * (ex: /todos e /buscar?id=) não se confundem: uma listagem completa não parece "congestionada" só por ser
+ * mais lenta que uma busca por ID.
+ * Enquanto a latência se mantiver próxima da referência, o limite cresce devagar (aumento aditivo).
+ * Quando ela sobe além da tolerância (sinal de fila no banco), o limite é reduzido proporcionalmente
+ * (diminuição multiplicativa), aliviando o pool de conexões.
+ */
+public class LimitadorAdaptativo {
+
+    // Latência aceita acima da referência antes de considerar que há congestionamento
+    private static final double TOLERANCIA = 2.0;
+
+    // Fator de redução do limite ao detectar congestionamento
+    private static final double FATOR_REDUCAO = 0.9;
+
+    // Peso de cada requisição na média de longo prazo da rota (cerca das últimas 100 requisições)
+    private static final double SUAVIZACAO_REFERENCIA = 0.01;
+
+    // Peso das requisições acima da tolerância: a referência não acompanha rapidamente um período de congestionamento
+    private static final double SUAVIZACAO_REFERENCIA_CONGESTIONADA = 0.001;
+
+    // Rotas com referência própria; acima disso, as novas rotas dividem uma referência comum
+    private static final int ROTAS_MAXIMAS = 256;
+    private static final String OUTRAS_ROTAS = "*";
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final int tamanhoFila;
+    private final long esperaMaximaNanos;
+
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition vagaLiberada = trava.newCondition();
+
+    // Campos protegidos pela trava
+    private double limite;
+    private int emUso;
+    private int aguardando;
+    private final Map<String, double[]> latenciaReferenciaNanos = new HashMap<>();
+
+    public LimitadorAdaptativo(int limiteMinimo, int limiteMaximo, int tamanhoFila, long esperaMaximaMillis) {
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.tamanhoFila = tamanhoFila;
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMillis);
+        this.limite = Math.max(limiteMinimo, limiteMaximo / 2.0);
+    }
+
+    /**
+     * Tenta ocupar uma vaga, aguardando no máximo o tempo configurado.
+     * Devolve false quando a requisição deve ser rejeitada.
+     */
+    public boolean adquirir() throws InterruptedException {
+        trava.lock();
+        try {
+            if (emUso < (int) limite) {
+                emUso++;
+                return true;
+            }
+            if (aguardando >= tamanhoFila) {
+                return false;
+            }
+
+            aguardando++;
+            try {
+                long restante = esperaMaximaNanos;
+                while (emUso >= (int) limite) {
+                    if (restante <= 0) {
+                        return false;
+                    }
+                    restante = vagaLiberada.awaitNanos(restante);
+                }
+                emUso++;
+                return true;
+            } finally {
+                aguardando--;
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite com base na latência da requisição concluída,
+     * comparada com a referência da rota informada (ex: "GET /api/pedidos/{id}").
+     */
+    public void liberar(String rota, long latenciaNanos) {
+        trava.lock();
+        try {
+            emUso--;
+
+            double[] referencia = latenciaReferenciaNanos.get(rota);
+            if (referencia == null) {
+                if (latenciaReferenciaNanos.size() >= ROTAS_MAXIMAS) {
+                    rota = OUTRAS_ROTAS;
+                    referencia = latenciaReferenciaNanos.get(rota);
+                }
+                if (referencia == null) {
+                    // Primeira requisição da rota: vira a referência, sem alterar o limite
+                    latenciaReferenciaNanos.put(rota, new double[] { latenciaNanos });
+                    vagaLiberada.signal();
+                    return;
+                }
+            }
+
+            if (latenciaNanos <= referencia[0] * TOLERANCIA) {
+                // Aumento aditivo: cerca de +1 no limite a cada "limite" requisições concluídas
+                limite = Math.min(limiteMaximo, limite + 1.0 / limite);
+                referencia[0] += (latenciaNanos - referencia[0]) * SUAVIZACAO_REFERENCIA;
+            } else {
+                limite = Math.max(limiteMinimo, limite * FATOR_REDUCAO);
+                referencia[0] += (latenciaNanos - referencia[0]) * SUAVIZACAO_REFERENCIA_CONGESTIONADA;
+            }
+
+            vagaLiberada.signal();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Indica se há requisições na fila (usado para dar prioridade a este grupo sobre os demais)
+    public boolean temAguardando() {
+        trava.lock();
+        try {
+            return aguardando > 0;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // GETTERS (usados pelas métricas)
+    public int getLimite() {
+        trava.lock();
+        try {
+            return (int) limite;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public int getEmUso() {
+        trava.lock();
+        try {
+            return emUso;
+        } finally {
+            trava.unlock();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.nathan.desafiosergipetec.analitico;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Dimensões disponíveis para agrupar as consultas do motor analítico.
+ * Cada dimensão sabe extrair a sua chave (um long) da fotografia colunar e formatá-la para exibição.
+ */
+public enum Agrupamento {
+
+    TOTAL, PRODUTO, CLIENTE, DIA, MES, DESCONTO;
+
+    long chave(ColunasItens colunas, int linha) {
+        return switch (this) {
+            case TOTAL -> 0L;
+            case PRODUTO -> colunas.produtoId[linha];
+            case CLIENTE -> colunas.clienteId[linha];
+            case DIA -> colunas.dia[linha];
+            case MES -> colunas.mes[linha];
+            case DESCONTO -> colunas.desconto[linha];
+        };
+    }
+
+    String formatarChave(long chave) {
+        return switch (this) {
+            case TOTAL -> "total";
+            case DIA -> LocalDate.ofEpochDay(chave).toString();
+            case MES -> YearMonth.of((int) (chave / 12), (int) (chave % 12) + 1).toString();
+            case DESCONTO -> chave + "%";
+            default -> String.valueOf(chave);
+        };
+    }
+
+    // Agrupamentos temporais são exibidos em ordem cronológica, os demais pelo maior faturamento
+    boolean ordenarPelaChave() {
+        return this == DIA || this == MES;
+    }
+
+    /**
+     * Converte o texto recebido na URL (ex: "produto") para o enum.
+     * Devolve null se o valor não for reconhecido, deixando o controlador responder 400.
+     */
+    public static Agrupamento deTexto(String texto) {
+        for (Agrupamento agrupamento : values()) {
+            if (agrupamento.name().equalsIgnoreCase(texto)) {
+                return agrupamento;
+            }
+        }
+        return null;
+    }
+}
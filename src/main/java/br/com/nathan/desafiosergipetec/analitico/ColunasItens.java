@@ -0,0 +1,95 @@
+package br.com.nathan.desafiosergipetec.analitico;
+
+import java.util.Arrays;
+
+/**
+ * Fotografia colunar (uma coluna por array primitivo) das linhas de tb_itens_pedido (e dos itens dos pedidos arquivados).
+ * 
+ * Cada posição "i" de todos os arrays descreve o mesmo item de pedido. Guardar os dados assim
+ * (e não como uma lista de objetos) deixa as varreduras sequenciais, sem ponteiros nem boxing,
+ * ocupando cerca de 50 bytes por item em vez de centenas.
+ * 
+ * Os arrays podem ter mais capacidade do que o "tamanho" publicado: quem lê só enxerga as posições
+ * abaixo de "tamanho", por isso o MotorAnalitico pode acrescentar linhas no final sem travar os leitores.
+ */
+final class ColunasItens {
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    final long[] pedidoId;
+    final long[] produtoId;
+    final long[] clienteId;
+    final int[] dia;                // Dias desde 1970-01-01 (LocalDate.toEpochDay)
+    final int[] mes;                // ano * 12 + (mês - 1), pré-calculado para agrupar por mês sem criar datas
+    final int[] quantidade;
+    final long[] valorCentavos;     // Valor unitário travado na compra, em centavos
+    final byte[] desconto;          // Desconto percentual (0 a 100)
+    final boolean[] primeiroItem;   // Marca uma única linha por pedido, para contar pedidos sem DISTINCT
+    final int tamanho;
+
+    private ColunasItens(int capacidade) {
+        this.pedidoId = new long[capacidade];
+        this.produtoId = new long[capacidade];
+        this.clienteId = new long[capacidade];
+        this.dia = new int[capacidade];
+        this.mes = new int[capacidade];
+        this.quantidade = new int[capacidade];
+        this.valorCentavos = new long[capacidade];
+        this.desconto = new byte[capacidade];
+        this.primeiroItem = new boolean[capacidade];
+        this.tamanho = 0;
+    }
+
+    private ColunasItens(ColunasItens origem, int capacidade, int tamanho) {
+        this.pedidoId = Arrays.copyOf(origem.pedidoId, capacidade);
+        this.produtoId = Arrays.copyOf(origem.produtoId, capacidade);
+        this.clienteId = Arrays.copyOf(origem.clienteId, capacidade);
+        this.dia = Arrays.copyOf(origem.dia, capacidade);
+        this.mes = Arrays.copyOf(origem.mes, capacidade);
+        this.quantidade = Arrays.copyOf(origem.quantidade, capacidade);
+        this.valorCentavos = Arrays.copyOf(origem.valorCentavos, capacidade);
+        this.desconto = Arrays.copyOf(origem.desconto, capacidade);
+        this.primeiroItem = Arrays.copyOf(origem.primeiroItem, capacidade);
+        this.tamanho = tamanho;
+    }
+
+    // Reaproveita os mesmos arrays, apenas publicando um novo tamanho
+    private ColunasItens(ColunasItens origem, int novoTamanho) {
+        this.pedidoId = origem.pedidoId;
+        this.produtoId = origem.produtoId;
+        this.clienteId = origem.clienteId;
+        this.dia = origem.dia;
+        this.mes = origem.mes;
+        this.quantidade = origem.quantidade;
+        this.valorCentavos = origem.valorCentavos;
+        this.desconto = origem.desconto;
+        this.primeiroItem = origem.primeiroItem;
+        this.tamanho = novoTamanho;
+    }
+
+    static ColunasItens vazia() {
+        return new ColunasItens(CAPACIDADE_INICIAL);
+    }
+
+    int capacidade() {
+        return produtoId.length;
+    }
+
+    /**
+     * Garante espaço para mais "linhasExtras" linhas. Quando os arrays já comportam, devolve a própria instância;
+     * caso contrário, cria cópias com o dobro da capacidade (os leitores antigos continuam usando os arrays anteriores).
+     */
+    ColunasItens garantirCapacidade(int linhasExtras) {
+        int necessaria = tamanho + linhasExtras;
+        if (necessaria <= capacidade()) {
+            return this;
+        }
+        int novaCapacidade = Math.max(necessaria, capacidade() * 2);
+        return new ColunasItens(this, novaCapacidade, tamanho);
+    }
+
+    // Publica um novo tamanho sobre os mesmos arrays, após o MotorAnalitico ter escrito as novas linhas.
+    ColunasItens comTamanho(int novoTamanho) {
+        return new ColunasItens(this, novoTamanho);
+    }
+}
@@ -0,0 +1,449 @@
+package br.com.nathan.desafiosergipetec.analitico;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.financeiro.Centavos;
+import br.com.nathan.desafiosergipetec.otds.OTDGrupoAnalitico;
+import br.com.nathan.desafiosergipetec.otds.OTDResultadoAnalitico;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedidoArquivado;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/**
+ * Motor analítico em memória sobre os itens de pedido.
+ *
+ * Mantém uma fotografia colunar (ColunasItens) de tb_itens_pedido + tb_pedidos (e dos pedidos arquivados)
+ * e responde agregações (faturamento por produto, por período, impacto de descontos, ticket médio...) sem consultar o PostgreSQL.
+ *
+ * Detalhes da implementação:
+ * 1. Carga Inicial Consistente: A primeira carga lê os pedidos do arquivo frio (arquivo.tb_pedidos_arquivados) e depois
+ * os itens ativos, numa única transação REPEATABLE READ. Assim um arquivamento que rode durante a carga não faz
+ * nenhum pedido sumir (nem aparecer duas vezes): todos os lotes enxergam o banco no mesmo instante.
+ *
+ * Carga Incremental: Depois, busca apenas os itens ativos com ID maior que o último carregado, em lotes.
+ * Roda periodicamente e também logo após o commit de novos pedidos (EventoPedidoCriado). Os eventos que chegam
+ * enquanto uma atualização já está na fila não agendam outra: a que está esperando lê todos os itens novos de uma vez.
+ *
+ * Lacunas: Os IDs vêm da sequência no momento do INSERT, mas as transações terminam em outra ordem. Um pedido que recebeu
+ * um ID menor pode ficar visível só depois de um ID maior já ter sido carregado. Por isso os IDs pulados pela carga
+ * ficam anotados e são consultados de novo a cada atualização, até aparecerem ou passarem de "analitico.espera-lacunas-ms"
+ * (IDs de transações desfeitas nunca aparecem). Uma conferência periódica compara o total de itens com o banco
+ * (COUNT) e, se divergir, refaz a fotografia do zero.
+ *
+ * 2. Varredura Paralela: A fotografia é dividida em partes que são somadas em paralelo (uma por núcleo)
+ * e depois combinadas, aproveitando todos os processadores da máquina.
+ *
+ * Contagem de Pedidos: Nos agrupamentos por cliente, dia, mês ou total, cada pedido é contado pela linha do seu
+ * primeiro item. Quando a análise desce ao nível do item (agrupamento por produto ou desconto, ou filtro de produto),
+ * um mesmo pedido pode ter várias linhas no grupo (itens com o mesmo desconto, produto repetido), então os pedidos
+ * são contados pelos IDs distintos.
+ *
+ * 3. Valores Inteiros: As somas são feitas com a classe Centavos (quantidade * centavos * (100 - desconto)),
+ * sem BigDecimal no laço. O arredondamento HALF_UP para 2 casas é aplicado uma única vez, no resultado final.
+ *
+ * Como pedidos não são alterados após criados, a fotografia só cresce. Pedidos arquivados depois da carga continuam nela
+ * (o arquivamento apenas move os pedidos), e após um reinício voltam pela leitura do arquivo frio.
+ */
+@Service
+public class MotorAnalitico {
+
+    private static final Logger log = LoggerFactory.getLogger(MotorAnalitico.class);
+
+    // Abaixo deste número de linhas por parte, o custo de dividir a varredura supera o ganho do paralelismo
+    private static final int LINHAS_MINIMAS_POR_PARTE = 50_000;
+
+    // Só os IDs pulados entre os últimos JANELA_LACUNAS IDs são acompanhados: transações em andamento têm IDs recentes
+    private static final int JANELA_LACUNAS = 10_000;
+
+    // IDs por consulta ao revisitar as lacunas
+    private static final int LOTE_LACUNAS = 1_000;
+
+    private final RepositorioPedido repositorioPedido;
+    private final RepositorioPedidoArquivado repositorioArquivo;
+    private final TransactionTemplate leituraConsistente;
+    private final int tamanhoLote;
+    private final long esperaLacunasMs;
+
+    // Fotografia publicada para os leitores. Trocada inteira a cada atualização (volatile garante a visibilidade).
+    private volatile ColunasItens colunas = ColunasItens.vazia();
+    private volatile LocalDateTime atualizadoEm;
+
+    // Último item carregado e se a carga inicial já foi feita. Só são lidos/escritos dentro de atualizar(), que é synchronized.
+    private long ultimoItemId = 0;
+    private boolean carregado = false;
+
+    // IDs pulados pela carga (lacunas na sequência) e o instante em que foram vistos pela primeira vez
+    private TreeMap<Long, Long> lacunas = new TreeMap<>();
+
+    // Marca que já existe uma atualização pedida por evento que ainda não começou a ler o banco
+    private final AtomicBoolean atualizacaoPendente = new AtomicBoolean();
+
+    public MotorAnalitico(RepositorioPedido repositorioPedido,
+            RepositorioPedidoArquivado repositorioArquivo,
+            PlatformTransactionManager gerenciadorTransacao,
+            @Value("${analitico.tamanho-lote:50000}") int tamanhoLote,
+            @Value("${analitico.espera-lacunas-ms:600000}") long esperaLacunasMs) {
+        this.repositorioPedido = repositorioPedido;
+        this.repositorioArquivo = repositorioArquivo;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaLacunasMs = esperaLacunasMs;
+
+        // Todos os lotes da carga completa leem o mesmo instante do banco
+        this.leituraConsistente = new TransactionTemplate(gerenciadorTransacao);
+        this.leituraConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.leituraConsistente.setReadOnly(true);
+    }
+
+    /**
+     * Traz para a memória os itens de pedido ainda não carregados.
+     * O synchronized garante um único escritor; os leitores nunca são bloqueados.
+     */
+    @Scheduled(fixedDelayString = "${analitico.intervalo-atualizacao-ms:30000}")
+    public synchronized void atualizar() {
+        // A partir daqui os itens de qualquer pedido já confirmado serão lidos, então um novo evento precisa de outra rodada
+        atualizacaoPendente.set(false);
+
+        if (!carregado) {
+            recarregar();
+            return;
+        }
+
+        int carregadas = 0;
+        List<Object[]> lote;
+
+        do {
+            lote = repositorioPedido.buscarLinhasItensAposId(ultimoItemId, tamanhoLote);
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            // Publica as novas linhas de uma só vez
+            registrarLacunas(lacunas, ultimoItemId, lote);
+            colunas = acrescentar(colunas, lote);
+            ultimoItemId = ((Number) lote.get(lote.size() - 1)[0]).longValue();
+            carregadas += lote.size();
+        } while (lote.size() == tamanhoLote);
+
+        carregadas += revisitarLacunas();
+
+        atualizadoEm = LocalDateTime.now();
+        if (carregadas > 0) {
+            log.debug("Motor analítico: {} novos itens carregados ({} no total)", carregadas, colunas.tamanho);
+        }
+    }
+
+    /**
+     * Monta uma fotografia nova, do zero: pedidos arquivados e depois os itens ativos, na mesma transação.
+     * Os leitores continuam usando a fotografia anterior até a nova ser publicada.
+     */
+    private void recarregar() {
+        long inicio = System.nanoTime();
+
+        Carga carga = leituraConsistente.execute(status -> {
+            ColunasItens destino = ColunasItens.vazia();
+            TreeMap<Long, Long> lacunasCarga = new TreeMap<>();
+            List<Object[]> lote;
+
+            // 1. Pedidos arquivados (lotes de pedidos, pois cada pedido vira uma linha por item)
+            long ultimoPedidoArquivado = 0;
+            do {
+                lote = repositorioArquivo.buscarLinhasItensAposPedido(ultimoPedidoArquivado, tamanhoLote);
+                if (!lote.isEmpty()) {
+                    destino = acrescentar(destino, lote);
+                    ultimoPedidoArquivado = ((Number) lote.get(lote.size() - 1)[1]).longValue();
+                }
+            } while (!lote.isEmpty());
+
+            // 2. Itens ativos
+            long ultimoItem = 0;
+            do {
+                lote = repositorioPedido.buscarLinhasItensAposId(ultimoItem, tamanhoLote);
+                if (!lote.isEmpty()) {
+                    registrarLacunas(lacunasCarga, ultimoItem, lote);
+                    destino = acrescentar(destino, lote);
+                    ultimoItem = ((Number) lote.get(lote.size() - 1)[0]).longValue();
+                }
+            } while (lote.size() == tamanhoLote);
+
+            return new Carga(destino, ultimoItem, lacunasCarga);
+        });
+
+        colunas = carga.colunas();
+        ultimoItemId = carga.ultimoItemId();
+        lacunas = carga.lacunas();
+        carregado = true;
+        atualizadoEm = LocalDateTime.now();
+
+        log.info("Motor analítico: {} itens carregados (ativos e arquivados) em {} ms",
+                colunas.tamanho, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Conferência periódica: depois de uma atualização, a quantidade de itens na memória deve ser igual à do banco
+     * (itens ativos até o último ID carregado + itens dos pedidos arquivados). Qualquer diferença (uma lacuna que passou
+     * do prazo, um pedido excluído...) faz a fotografia ser montada de novo.
+     */
+    @Scheduled(initialDelayString = "${analitico.intervalo-conferencia-ms:3600000}",
+            fixedDelayString = "${analitico.intervalo-conferencia-ms:3600000}")
+    public synchronized void conferir() {
+        if (!carregado) {
+            return;
+        }
+
+        atualizar();
+        long noBanco = repositorioPedido.contarItensAteId(ultimoItemId);
+
+        if (noBanco != colunas.tamanho) {
+            log.warn("Motor analítico divergente do banco ({} itens em memória, {} no banco): recarregando",
+                    colunas.tamanho, noBanco);
+            recarregar();
+        }
+    }
+
+    /**
+     * Anota os IDs que a carga pulou entre "anterior" e as linhas do lote (ordenadas pelo ID).
+     * Apenas a janela mais recente de IDs é considerada, e o total de lacunas é limitado ao tamanho dessa janela.
+     */
+    private static void registrarLacunas(TreeMap<Long, Long> destino, long anterior, List<Object[]> lote) {
+        long agora = System.currentTimeMillis();
+        long maiorId = ((Number) lote.get(lote.size() - 1)[0]).longValue();
+        long piso = Math.max(anterior, maiorId - JANELA_LACUNAS);
+
+        for (Object[] linha : lote) {
+            long id = ((Number) linha[0]).longValue();
+            for (long faltante = Math.max(anterior, piso) + 1; faltante < id; faltante++) {
+                destino.putIfAbsent(faltante, agora);
+            }
+            anterior = id;
+        }
+
+        while (destino.size() > JANELA_LACUNAS) {
+            destino.pollFirstEntry();
+        }
+    }
+
+    /**
+     * Consulta de novo os IDs pulados: os que apareceram (transações que terminaram depois) entram na fotografia,
+     * os que passaram do prazo de espera são esquecidos. Devolve quantas linhas foram acrescentadas.
+     */
+    private int revisitarLacunas() {
+        if (lacunas.isEmpty()) {
+            return 0;
+        }
+
+        long limite = System.currentTimeMillis() - esperaLacunasMs;
+        lacunas.values().removeIf(vistaEm -> vistaEm < limite);
+
+        int encontradas = 0;
+        List<Long> ids = new ArrayList<>(lacunas.keySet());
+        for (int inicio = 0; inicio < ids.size(); inicio += LOTE_LACUNAS) {
+            List<Object[]> linhas = repositorioPedido.buscarLinhasItensPorIds(
+                    ids.subList(inicio, Math.min(ids.size(), inicio + LOTE_LACUNAS)));
+
+            if (!linhas.isEmpty()) {
+                colunas = acrescentar(colunas, linhas);
+                for (Object[] linha : linhas) {
+                    lacunas.remove(((Number) linha[0]).longValue());
+                }
+                encontradas += linhas.size();
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * Acrescenta as linhas (no formato de buscarLinhasItensAposId) ao final da fotografia
+     * e devolve a nova versão, já com o novo tamanho.
+     */
+    private static ColunasItens acrescentar(ColunasItens base, List<Object[]> linhas) {
+        ColunasItens destino = base.garantirCapacidade(linhas.size());
+        int posicao = destino.tamanho;
+
+        for (Object[] linha : linhas) {
+            // Pedido arquivado sem nenhum item: a linha só serve para avançar a paginação
+            if (linha[2] == null) {
+                continue;
+            }
+
+            int dia = ((Number) linha[4]).intValue();
+            LocalDate data = LocalDate.ofEpochDay(dia);
+
+            destino.pedidoId[posicao] = ((Number) linha[1]).longValue();
+            destino.produtoId[posicao] = ((Number) linha[2]).longValue();
+            destino.clienteId[posicao] = ((Number) linha[3]).longValue();
+            destino.dia[posicao] = dia;
+            destino.mes[posicao] = data.getYear() * 12 + data.getMonthValue() - 1;
+            destino.quantidade[posicao] = ((Number) linha[5]).intValue();
+            destino.valorCentavos[posicao] = ((Number) linha[6]).longValue();
+            destino.desconto[posicao] = ((Number) linha[7]).byteValue();
+            destino.primeiroItem[posicao] = (Boolean) linha[8];
+            posicao++;
+        }
+
+        return destino.comTamanho(posicao);
+    }
+
+    /**
+     * Novo pedido confirmado: antecipa a carga incremental, fora da thread da requisição.
+     * Se outra atualização já está esperando a vez, ela também lerá este pedido, e o evento é descartado
+     * (sem isso, cada pedido deixaria uma thread parada na fila do synchronized).
+     */
+    @Async
+    @TransactionalEventListener
+    public void aoCriarPedido(EventoPedidoCriado evento) {
+        if (atualizacaoPendente.compareAndSet(false, true)) {
+            atualizar();
+        }
+    }
+
+    /**
+     * Executa uma agregação sobre a fotografia atual.
+     * Os filtros nulos são ignorados, no mesmo espírito do buscarComFiltros do RepositorioPedido.
+     */
+    public OTDResultadoAnalitico consultar(Agrupamento agrupamento, LocalDate dataInicio, LocalDate dataFim,
+            Long produtoId, Long clienteId) {
+        ColunasItens fotografia = colunas;
+
+        Filtro filtro = new Filtro(
+                dataInicio != null ? (int) dataInicio.toEpochDay() : Integer.MIN_VALUE,
+                dataFim != null ? (int) dataFim.toEpochDay() : Integer.MAX_VALUE,
+                produtoId != null, produtoId != null ? produtoId : 0L,
+                clienteId != null, clienteId != null ? clienteId : 0L,
+                // Quando a análise desce ao nível do item, o mesmo pedido pode aparecer em várias linhas do grupo
+                agrupamento == Agrupamento.PRODUTO || agrupamento == Agrupamento.DESCONTO || produtoId != null);
+
+        int tamanho = fotografia.tamanho;
+        int partes = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), tamanho / LINHAS_MINIMAS_POR_PARTE));
+
+        Map<Long, Acumulador> totais = IntStream.range(0, partes)
+                .parallel()
+                .mapToObj(parte -> varrer(fotografia, agrupamento, filtro,
+                        (int) ((long) tamanho * parte / partes),
+                        (int) ((long) tamanho * (parte + 1) / partes)))
+                .reduce(MotorAnalitico::combinar)
+                .orElseGet(HashMap::new);
+
+        List<Map.Entry<Long, Acumulador>> entradas = new ArrayList<>(totais.entrySet());
+        if (agrupamento.ordenarPelaChave()) {
+            entradas.sort(Map.Entry.comparingByKey());
+        } else {
+            entradas.sort(Comparator.comparingLong((Map.Entry<Long, Acumulador> e) -> e.getValue().liquido).reversed());
+        }
+
+        List<OTDGrupoAnalitico> grupos = new ArrayList<>(entradas.size());
+        for (Map.Entry<Long, Acumulador> entrada : entradas) {
+            grupos.add(entrada.getValue().paraOTD(agrupamento.formatarChave(entrada.getKey())));
+        }
+
+        return new OTDResultadoAnalitico(agrupamento.name().toLowerCase(), grupos, tamanho, atualizadoEm);
+    }
+
+    // Soma as linhas [inicio, fim) que passam no filtro. Cada parte da varredura paralela tem o seu próprio mapa.
+    private static Map<Long, Acumulador> varrer(ColunasItens c, Agrupamento agrupamento, Filtro filtro, int inicio, int fim) {
+        Map<Long, Acumulador> parcial = new HashMap<>();
+
+        for (int i = inicio; i < fim; i++) {
+            if (c.dia[i] < filtro.diaInicio || c.dia[i] > filtro.diaFim) continue;
+            if (filtro.porProduto && c.produtoId[i] != filtro.produtoId) continue;
+            if (filtro.porCliente && c.clienteId[i] != filtro.clienteId) continue;
+
+            long bruto = Centavos.totalBrutoEmFracao(c.quantidade[i], c.valorCentavos[i]);
+            long liquido = Centavos.totalItemEmFracao(c.quantidade[i], c.valorCentavos[i], c.desconto[i]);
+
+            Acumulador acumulador = parcial.computeIfAbsent(agrupamento.chave(c, i), chave -> new Acumulador());
+            acumulador.bruto += bruto;
+            acumulador.liquido += liquido;
+            acumulador.quantidade += c.quantidade[i];
+            if (filtro.pedidosDistintos) {
+                acumulador.contarPedido(c.pedidoId[i]);
+            } else if (c.primeiroItem[i]) {
+                acumulador.pedidos++;
+            }
+        }
+        return parcial;
+    }
+
+    private static Map<Long, Acumulador> combinar(Map<Long, Acumulador> a, Map<Long, Acumulador> b) {
+        b.forEach((chave, acumulador) -> a.merge(chave, acumulador, Acumulador::somar));
+        return a;
+    }
+
+    // Resultado da carga completa: a fotografia montada, o último item ativo lido e as lacunas encontradas
+    private record Carga(ColunasItens colunas, long ultimoItemId, TreeMap<Long, Long> lacunas) {
+    }
+
+    // Filtros já convertidos para primitivos, evitando unboxing dentro do laço da varredura
+    private record Filtro(int diaInicio, int diaFim, boolean porProduto, long produtoId,
+            boolean porCliente, long clienteId, boolean pedidosDistintos) {
+    }
+
+    /**
+     * Somatórios de um grupo. Valores monetários em fração (centésimos de centavo, ver classe Centavos).
+     * Com a contagem por IDs distintos, os pedidos ficam num conjunto, unido ao combinar as partes da varredura.
+     */
+    private static final class Acumulador {
+        long bruto;
+        long liquido;
+        long quantidade;
+        long pedidos;
+        Set<Long> idsPedidos;
+
+        void contarPedido(long pedidoId) {
+            if (idsPedidos == null) {
+                idsPedidos = new HashSet<>();
+            }
+            if (idsPedidos.add(pedidoId)) {
+                pedidos++;
+            }
+        }
+
+        Acumulador somar(Acumulador outro) {
+            bruto += outro.bruto;
+            liquido += outro.liquido;
+            quantidade += outro.quantidade;
+            if (outro.idsPedidos != null) {
+                outro.idsPedidos.forEach(this::contarPedido);
+            } else {
+                pedidos += outro.pedidos;
+            }
+            return this;
+        }
+
+        OTDGrupoAnalitico paraOTD(String chave) {
+            // O ticket médio é a única divisão: feita em BigDecimal, já na borda da resposta
+            BigDecimal ticketMedio = pedidos > 0
+                    ? BigDecimal.valueOf(liquido, 4).divide(BigDecimal.valueOf(pedidos), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+
+            return new OTDGrupoAnalitico(chave,
+                    Centavos.paraReais(Centavos.arredondar(liquido)),
+                    Centavos.paraReais(Centavos.arredondar(bruto)),
+                    Centavos.paraReais(Centavos.arredondar(bruto - liquido)),
+                    quantidade, pedidos, ticketMedio);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package br.com.nathan.desafiosergipetec.aquecimento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import br.com.nathan.desafiosergipetec.entidades.Cliente;
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Aquecimento da aplicação logo após a inicialização, antes de a instância ser considerada pronta.
+ *
+ * Logo após um deploy tudo está "frio": o pool de conexões vazio, o Hibernate sem as consultas compiladas,
+ * o PostgreSQL sem os statements preparados e sem as tabelas no cache, e a JVM interpretando o código
+ * que ainda não foi compilado pelo JIT. Os primeiros usuários pagavam esse custo.
+ *
+ * Fases (nesta ordem):
+ * 1. POOL: Abre de uma vez todas as conexões do Hikari (spring.datasource.hikari.maximum-pool-size).
+ * 2. CATALOGO: Lê uma amostra limitada de produtos e clientes (índices e primeiras páginas das tabelas no cache).
+ * 3. CONSULTAS: Executa os formatos representativos do buscarComFiltros (por cliente, produto, textos e período).
+ * 4. TRAFEGO: Dispara requisições sintéticas (somente leitura) contra a própria API, passando por filtros,
+ * controladores e serialização JSON, em rodadas, até a duração de uma rodada estabilizar (CriterioParada).
+ * A repetição também faz o driver do PostgreSQL preparar os statements no servidor (após algumas execuções).
+ *
+ * Todas as leituras são limitadas: amostras com LIMIT, e as buscas de pedidos sempre combinam o filtro do formato
+ * com o ID de um pedido (o mais recente), então cada uma agrega no máximo um pedido. O custo do aquecimento não cresce
+ * com o tamanho do banco, e uma instância nova não disputa o banco com as demais agregando todos os pedidos.
+ * O aquecimento inteiro também tem um teto de rodadas e de tempo (aquecimento.rodadas-maximas e aquecimento.tempo-maximo-ms).
+ * Trazer tabelas inteiras para o cache, se desejado, fica a cargo do banco (ex: extensão pg_prewarm).
+ *
+ * Como roda num ApplicationRunner, a prontidão (/actuator/health/readiness) só passa a aceitar tráfego depois
+ * que o aquecimento termina. Enquanto isso, este componente (indicador "aquecimento") informa a fase e o progresso.
+ * Falhas no aquecimento são registradas, mas não impedem a instância de ficar pronta.
+ */
+@Component("aquecimento")
+public class AquecimentoInicial implements ApplicationRunner, HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(AquecimentoInicial.class);
+
+    // Quantidade de produtos usados nas consultas em lote e na cotação sintética
+    private static final int PRODUTOS_AMOSTRA = 10;
+
+    // Linhas lidas de cada tabela do catálogo
+    private static final int LINHAS_CATALOGO = 100;
+
+    // Período (em dias, até hoje) das buscas de pedidos por data
+    private static final int DIAS_PERIODO = 1;
+
+    // Tempo máximo de cada requisição sintética (uma requisição presa não segura o aquecimento)
+    private static final Duration TEMPO_REQUISICAO = Duration.ofSeconds(5);
+
+    private final DataSource dataSource;
+    private final RepositorioProduto repositorioProduto;
+    private final RepositorioCliente repositorioCliente;
+    private final RepositorioPedido repositorioPedido;
+    private final Environment environment;
+
+    private final boolean habilitado;
+    private final int tamanhoPool;
+    private final CriterioParada criterioParada;
+
+    // Progresso, lido pelo indicador de saúde em outra thread
+    private volatile String fase = "AGUARDANDO";
+    private volatile int rodadas;
+    private volatile long ultimaRodadaMillis;
+    private volatile boolean concluido;
+
+    public AquecimentoInicial(DataSource dataSource,
+            RepositorioProduto repositorioProduto,
+            RepositorioCliente repositorioCliente,
+            RepositorioPedido repositorioPedido,
+            Environment environment,
+            @Value("${aquecimento.habilitado:true}") boolean habilitado,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanhoPool,
+            @Value("${aquecimento.rodadas-minimas:5}") int rodadasMinimas,
+            @Value("${aquecimento.rodadas-maximas:200}") int rodadasMaximas,
+            @Value("${aquecimento.tolerancia:0.1}") double tolerancia,
+            @Value("${aquecimento.tempo-maximo-ms:30000}") long tempoMaximoMillis) {
+        this.dataSource = dataSource;
+        this.repositorioProduto = repositorioProduto;
+        this.repositorioCliente = repositorioCliente;
+        this.repositorioPedido = repositorioPedido;
+        this.environment = environment;
+        this.habilitado = habilitado;
+        this.tamanhoPool = tamanhoPool;
+        this.criterioParada = new CriterioParada(rodadasMinimas, rodadasMaximas, tolerancia,
+                TimeUnit.MILLISECONDS.toNanos(tempoMaximoMillis));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!habilitado) {
+            fase = "DESABILITADO";
+            concluido = true;
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            fase = "POOL";
+            abrirPool();
+
+            fase = "CATALOGO";
+            Amostra amostra = carregarCatalogo();
+
+            fase = "CONSULTAS";
+            executarConsultas(amostra);
+
+            fase = "TRAFEGO";
+            gerarTrafego(amostra, inicio);
+
+            fase = "CONCLUIDO";
+        } catch (RuntimeException | SQLException e) {
+            // O aquecimento é apenas uma otimização: a instância segue para o estado de pronta
+            log.warn("Aquecimento interrompido na fase {}: {}", fase, e.getMessage());
+            fase = "FALHOU";
+        } finally {
+            concluido = true;
+            log.info("Aquecimento finalizado em {} ms ({} rodadas de tráfego, última com {} ms)",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), rodadas, ultimaRodadaMillis);
+        }
+    }
+
+    // Indicador de saúde incluído no grupo de prontidão (management.endpoint.health.group.readiness.include)
+    @Override
+    public Health health() {
+        Health.Builder estado = concluido ? Health.up() : Health.outOfService();
+        return estado.withDetail("fase", fase)
+                .withDetail("rodadas", rodadas)
+                .withDetail("ultimaRodadaMs", ultimaRodadaMillis)
+                .build();
+    }
+
+    // Ocupa todas as conexões ao mesmo tempo, obrigando o Hikari a abrir o pool inteiro
+    private void abrirPool() throws SQLException {
+        List<Connection> conexoes = new ArrayList<>(tamanhoPool);
+        try {
+            for (int i = 0; i < tamanhoPool; i++) {
+                conexoes.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection conexao : conexoes) {
+                conexao.close();
+            }
+        }
+    }
+
+    // Lê uma amostra do catálogo e guarda alguns IDs e textos reais para as próximas fases
+    private Amostra carregarCatalogo() {
+        List<Produto> produtos = repositorioProduto.listarAmostra(LINHAS_CATALOGO);
+        List<Cliente> clientes = repositorioCliente.listarAmostra(LINHAS_CATALOGO);
+
+        List<Long> produtoIds = produtos.stream().limit(PRODUTOS_AMOSTRA).map(Produto::getId).toList();
+        Long produtoId = produtoIds.isEmpty() ? 1L : produtoIds.get(0);
+        Long clienteId = clientes.isEmpty() ? 1L : clientes.get(0).getId();
+        String descricao = produtos.isEmpty() ? "produto" : primeiraPalavra(produtos.get(0).getDescricao(), "produto");
+        String nome = clientes.isEmpty() ? "cliente" : primeiraPalavra(clientes.get(0).getNome(), "cliente");
+        Long pedidoId = repositorioPedido.buscarIdMaisRecente();
+
+        return new Amostra(produtoIds.isEmpty() ? List.of(produtoId) : produtoIds, produtoId, clienteId, descricao, nome,
+                pedidoId != null ? pedidoId : 1L);
+    }
+
+    /**
+     * Os mesmos formatos de busca usados pela tela de pedidos (cada combinação de filtros gera um plano diferente).
+     * Cada formato vai junto com o ID do pedido da amostra: o banco resolve pela chave primária e agrega
+     * no máximo um pedido, qualquer que seja o tamanho das tabelas (um filtro por cliente ou produto sozinho
+     * agregaria todos os pedidos do cliente ou do produto).
+     */
+    private void executarConsultas(Amostra amostra) {
+        LocalDateTime agora = LocalDateTime.now();
+        Long pedidoId = amostra.pedidoId;
+
+        repositorioProduto.buscarPorId(amostra.produtoId);
+        repositorioProduto.buscarPorIds(amostra.produtoIds);
+        repositorioProduto.buscarPorDescricao(amostra.descricao, 20);
+        repositorioCliente.buscarPorId(amostra.clienteId);
+        repositorioCliente.buscarPorNome(amostra.nome, 20);
+
+        repositorioPedido.buscarComFiltros(pedidoId, null, null, null, null, null, null);
+        repositorioPedido.buscarComFiltros(pedidoId, amostra.clienteId, null, null, null, null, null);
+        repositorioPedido.buscarComFiltros(pedidoId, null, amostra.nome, null, null, null, null);
+        repositorioPedido.buscarComFiltros(pedidoId, null, null, amostra.produtoId, null, null, null);
+        repositorioPedido.buscarComFiltros(pedidoId, null, null, null, amostra.descricao, null, null);
+        repositorioPedido.buscarComFiltros(pedidoId, null, null, null, null, agora.minusDays(DIAS_PERIODO), agora);
+    }
+
+    /**
+     * Rodadas de requisições sintéticas contra a própria aplicação, até a latência estabilizar
+     * ou algum teto (rodadas ou tempo desde o início do aquecimento) ser atingido. Ver CriterioParada.
+     */
+    private void gerarTrafego(Amostra amostra, long inicio) {
+        Integer porta = environment.getProperty("local.server.port", Integer.class);
+        if (porta == null) {
+            // Sem servidor web (ex: testes), não há tráfego a simular
+            return;
+        }
+
+        SimpleClientHttpRequestFactory conexoes = new SimpleClientHttpRequestFactory();
+        conexoes.setConnectTimeout(TEMPO_REQUISICAO);
+        conexoes.setReadTimeout(TEMPO_REQUISICAO);
+        RestClient cliente = RestClient.builder().baseUrl("http://localhost:" + porta).requestFactory(conexoes).build();
+
+        LocalDate hoje = LocalDate.now();
+        String ids = amostra.produtoIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        String buscaPedido = "/api/pedidos/buscar?id=" + amostra.pedidoId;
+
+        List<String> caminhos = List.of(
+                "/api/produtos/" + amostra.produtoId,
+                "/api/produtos/" + amostra.descricao,
+                "/api/produtos/lote?ids=" + ids,
+                "/api/clientes/" + amostra.clienteId,
+                "/api/clientes/" + amostra.nome,
+                "/api/clientes/" + amostra.clienteId + "/pedidos",
+                "/api/pedidos/" + amostra.pedidoId,
+                buscaPedido + "&cliente=" + amostra.clienteId,
+                buscaPedido + "&cliente=" + amostra.nome,
+                buscaPedido + "&produto=" + amostra.produtoId,
+                buscaPedido + "&produto=" + amostra.descricao,
+                buscaPedido + "&dataInicio=" + hoje.minusDays(DIAS_PERIODO) + "&dataFim=" + hoje,
+                "/api/analytics?agrupamento=produto",
+                "/api/ranking/produtos");
+
+        Map<String, Object> carrinho = Map.of("itens", amostra.produtoIds.stream()
+                .map(id -> Map.of("produtoId", id, "quantidade", 1, "desconto", 0))
+                .toList());
+
+        long anterior = -1;
+        int estaveis = 0;
+
+        while (!criterioParada.deveParar(rodadas, estaveis, System.nanoTime() - inicio)) {
+            long inicioRodada = System.nanoTime();
+
+            for (String caminho : caminhos) {
+                if (criterioParada.tempoEsgotado(System.nanoTime() - inicio)) {
+                    return;
+                }
+                requisitar(() -> cliente.get().uri(caminho).retrieve().toBodilessEntity());
+            }
+            requisitar(() -> cliente.post().uri("/api/pedidos/cotacao")
+                    .contentType(MediaType.APPLICATION_JSON).body(carrinho).retrieve().toBodilessEntity());
+
+            long duracao = System.nanoTime() - inicioRodada;
+            ultimaRodadaMillis = TimeUnit.NANOSECONDS.toMillis(duracao);
+            rodadas++;
+
+            estaveis = criterioParada.estavel(anterior, duracao) ? estaveis + 1 : 0;
+            anterior = duracao;
+        }
+    }
+
+    // Respostas de erro (ex: 404 de um ID inexistente) também aquecem o caminho; só interessa não interromper
+    private static void requisitar(Runnable requisicao) {
+        try {
+            requisicao.run();
+        } catch (RestClientException e) {
+            log.debug("Aquecimento: requisição sintética falhou: {}", e.getMessage());
+        }
+    }
+
+    // Primeira palavra do texto, só com letras e números (vai direto no caminho da URL)
+    private static String primeiraPalavra(String texto, String padrao) {
+        String palavra = texto.trim().split("\\s+")[0].replaceAll("[^\\p{L}\\p{N}]", "");
+        return palavra.isEmpty() ? padrao : palavra;
+    }
+
+    private record Amostra(List<Long> produtoIds, Long produtoId, Long clienteId, String descricao, String nome,
+            Long pedidoId) {
+    }
+}
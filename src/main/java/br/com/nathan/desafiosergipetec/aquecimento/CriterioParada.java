@@ -0,0 +1,31 @@
+package br.com.nathan.desafiosergipetec.aquecimento;
+
+/**
+ * Quando as rodadas de tráfego sintético do aquecimento (AquecimentoInicial) devem parar.
+ *
+ * - A latência está estável: pelo menos "rodadasMinimas" rodadas, e as últimas RODADAS_ESTAVEIS rodadas seguidas
+ * variaram menos que a tolerância em relação à rodada anterior.
+ * - Ou algum teto foi atingido: "rodadasMaximas" rodadas ou "tempoMaximoNanos" desde o início do aquecimento
+ * (o que vier primeiro). O teto de tempo vale inclusive no meio de uma rodada.
+ */
+record CriterioParada(int rodadasMinimas, int rodadasMaximas, double tolerancia, long tempoMaximoNanos) {
+
+    // Rodadas seguidas dentro da tolerância para considerar a latência estável
+    static final int RODADAS_ESTAVEIS = 3;
+
+    // A rodada durou quase o mesmo que a anterior (anterior <= 0 indica que não há rodada anterior)
+    boolean estavel(long duracaoAnteriorNanos, long duracaoNanos) {
+        return duracaoAnteriorNanos > 0
+                && Math.abs(duracaoNanos - duracaoAnteriorNanos) <= duracaoAnteriorNanos * tolerancia;
+    }
+
+    boolean tempoEsgotado(long decorridoNanos) {
+        return decorridoNanos >= tempoMaximoNanos;
+    }
+
+    boolean deveParar(int rodadas, int rodadasEstaveis, long decorridoNanos) {
+        return rodadas >= rodadasMaximas
+                || tempoEsgotado(decorridoNanos)
+                || (rodadas >= rodadasMinimas && rodadasEstaveis >= RODADAS_ESTAVEIS);
+    }
+}
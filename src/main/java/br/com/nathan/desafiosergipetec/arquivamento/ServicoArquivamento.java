@@ -0,0 +1,218 @@
+package br.com.nathan.desafiosergipetec.arquivamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.nathan.desafiosergipetec.entidades.Cliente;
+import br.com.nathan.desafiosergipetec.entidades.ItemPedido;
+import br.com.nathan.desafiosergipetec.entidades.Pedido;
+import br.com.nathan.desafiosergipetec.entidades.PedidoArquivado;
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.otds.OTDPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedidoArquivado;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arquivamento de pedidos antigos em armazenamento frio (schema 'arquivo').
+ *
+ * tb_pedidos e tb_itens_pedido crescem para sempre, inchando os índices e deixando o VACUUM e as buscas mais lentos.
+ * Uma tarefa diária move os pedidos mais antigos que "arquivamento.idade-dias" para arquivo.tb_pedidos_arquivados,
+ * em lotes (cada lote numa transação própria, para não segurar travas por muito tempo).
+ *
+ * As buscas de pedidos só consultam o arquivo quando o período pedido alcança o período arquivado (ver deveConsultarArquivo).
+ * A data do pedido arquivado mais recente é lida do banco (com um cache curto), pois o arquivamento pode ter rodado
+ * em outra instância ou antes de esta instância reiniciar. A consulta por ID e o histórico do cliente também recorrem ao arquivo (via ServicoBuscaPedidos),
+ * então um pedido continua visível nas mesmas telas depois de arquivado.
+ */
+@Service
+public class ServicoArquivamento {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoArquivamento.class);
+
+    private final RepositorioPedidoArquivado repositorioArquivo;
+    private final RepositorioCliente repositorioCliente;
+    private final RepositorioProduto repositorioProduto;
+    private final TransactionTemplate transacao;
+    private final int idadeDias;
+    private final int tamanhoLote;
+    private final long cacheDataNanos;
+
+    // Data do pedido arquivado mais recente (null quando o arquivo está vazio) e quando ela foi lida do banco
+    private record DataArquivada(LocalDateTime data, long lidaEm) { }
+
+    private volatile DataArquivada dataMaisRecenteArquivada;
+
+    public ServicoArquivamento(RepositorioPedidoArquivado repositorioArquivo,
+            RepositorioCliente repositorioCliente,
+            RepositorioProduto repositorioProduto,
+            PlatformTransactionManager gerenciadorTransacao,
+            @Value("${arquivamento.idade-dias:365}") int idadeDias,
+            @Value("${arquivamento.tamanho-lote:1000}") int tamanhoLote,
+            @Value("${arquivamento.cache-data-ms:60000}") long cacheDataMs) {
+        this.repositorioArquivo = repositorioArquivo;
+        this.repositorioCliente = repositorioCliente;
+        this.repositorioProduto = repositorioProduto;
+        this.transacao = new TransactionTemplate(gerenciadorTransacao);
+        this.idadeDias = idadeDias;
+        this.tamanhoLote = tamanhoLote;
+        this.cacheDataNanos = TimeUnit.MILLISECONDS.toNanos(cacheDataMs);
+    }
+
+    // Tarefa diária (por padrão às 03:30, fora do horário de vendas)
+    @Scheduled(cron = "${arquivamento.cron:0 30 3 * * *}")
+    public void arquivarPedidosAntigos() {
+        LocalDateTime corte = corteAtual();
+        int total = 0;
+        int copiados;
+
+        do {
+            copiados = transacao.execute(status -> {
+                int lote = repositorioArquivo.copiarPedidosAnterioresA(corte, tamanhoLote);
+                repositorioArquivo.removerPedidosArquivados(corte);
+                return lote;
+            });
+            total += copiados;
+        } while (copiados > 0);
+
+        dataMaisRecenteArquivada = null;
+        if (total > 0) {
+            log.info("{} pedidos anteriores a {} movidos para o arquivo", total, corte);
+        }
+    }
+
+    /**
+     * Indica se uma busca que começa em "inicio" (null = sem data inicial) alcança o período arquivado.
+     *
+     * - Sem data inicial, o arquivo é sempre consultado (não depende de nenhum estado desta instância).
+     * - Com data inicial, o período arquivado vai até a data do pedido arquivado mais recente (lida do banco)
+     * ou até o corte atual do arquivamento, o que for maior: pedidos anteriores ao corte podem ter sido
+     * arquivados por outra instância depois da última leitura.
+     */
+    public boolean deveConsultarArquivo(LocalDateTime inicio) {
+        if (inicio == null) {
+            return true;
+        }
+        LocalDateTime limite = dataMaisRecenteArquivada();
+        return inicio.isBefore(corteAtual()) || (limite != null && !inicio.isAfter(limite));
+    }
+
+    // Data do pedido arquivado mais recente, relida do banco quando o valor guardado tem mais de "arquivamento.cache-data-ms"
+    private LocalDateTime dataMaisRecenteArquivada() {
+        DataArquivada guardada = dataMaisRecenteArquivada;
+        long agora = System.nanoTime();
+        if (guardada == null || agora - guardada.lidaEm() >= cacheDataNanos) {
+            guardada = new DataArquivada(repositorioArquivo.buscarDataMaisRecente(), agora);
+            dataMaisRecenteArquivada = guardada;
+        }
+        return guardada.data();
+    }
+
+    // Pedidos anteriores a esta data são movidos para o arquivo pela próxima execução da tarefa
+    private LocalDateTime corteAtual() {
+        return LocalDate.now().minusDays(idadeDias).atStartOfDay();
+    }
+
+    // Busca no arquivo com os mesmos filtros (e a mesma regra de total) da busca de pedidos ativos
+    public List<OTDPedido> buscarComFiltros(Long id, Long clienteId, String nomeCliente, Long produtoId,
+            String descricaoProduto, LocalDateTime dataInicio, LocalDateTime dataFim) {
+        List<Object[]> linhas = repositorioArquivo.buscarComFiltros(
+                id, clienteId, nomeCliente, produtoId, descricaoProduto, dataInicio, dataFim);
+
+        List<OTDPedido> pedidos = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            pedidos.add(new OTDPedido(((Number) linha[0]).longValue(), (String) linha[1], paraData(linha[2]),
+                    linha[3] != null ? ((Number) linha[3]).longValue() : null));
+        }
+        return pedidos;
+    }
+
+    /**
+     * Histórico de pedidos arquivados do cliente, com o mesmo cursor (antesDe, antesDeId) do histórico de pedidos ativos.
+     * O nome do cliente não é preenchido (quem chama o preenche uma única vez para a página inteira).
+     */
+    public List<OTDPedido> buscarHistoricoCliente(Long clienteId, LocalDateTime antesDe, Long antesDeId, int limite) {
+        List<Object[]> linhas = (antesDe == null)
+                ? repositorioArquivo.buscarHistoricoCliente(clienteId, limite)
+                : repositorioArquivo.buscarHistoricoClienteApos(clienteId, antesDe, antesDeId, limite);
+
+        List<OTDPedido> pedidos = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            pedidos.add(new OTDPedido(((Number) linha[0]).longValue(), paraData(linha[1]), ((Number) linha[2]).longValue()));
+        }
+        return pedidos;
+    }
+
+    /**
+     * Remonta um pedido arquivado no mesmo formato da entidade Pedido (GET /api/pedidos/{id}).
+     * O objeto não é gerenciado pelo JPA: serve apenas para a resposta e nunca é gravado.
+     * Cliente e produtos vêm do cadastro atual; se tiverem sido excluídos, são montados com os dados guardados no arquivo.
+     */
+    public Optional<Pedido> buscarPedido(Long id) {
+        Optional<PedidoArquivado> encontrado = repositorioArquivo.findById(id);
+        if (encontrado.isEmpty()) {
+            return Optional.empty();
+        }
+        PedidoArquivado arquivado = encontrado.get();
+
+        Cliente cliente = repositorioCliente.buscarPorId(arquivado.getClienteId()).orElseGet(() -> {
+            Cliente excluido = new Cliente(arquivado.getNomeCliente(), null);
+            excluido.setId(arquivado.getClienteId());
+            return excluido;
+        });
+
+        Pedido pedido = new Pedido(cliente);
+        pedido.setId(arquivado.getId());
+        pedido.setDataPedido(arquivado.getDataPedido());
+        pedido.setValorTotal(arquivado.getValorTotal());
+
+        List<Object[]> linhas = repositorioArquivo.buscarItensDoPedido(id);
+
+        // Produtos ainda cadastrados, numa única consulta
+        List<Long> idsProdutos = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            idsProdutos.add(((Number) linha[0]).longValue());
+        }
+        Map<Long, Produto> produtos = new HashMap<>();
+        if (!idsProdutos.isEmpty()) {
+            for (Produto produto : repositorioProduto.buscarPorIds(idsProdutos)) {
+                produtos.put(produto.getId(), produto);
+            }
+        }
+
+        for (Object[] linha : linhas) {
+            Long produtoId = ((Number) linha[0]).longValue();
+            Produto produto = produtos.get(produtoId);
+            if (produto == null) {
+                produto = new Produto((String) linha[1], null, null);
+                produto.setId(produtoId);
+            }
+
+            pedido.adicionarItem(new ItemPedido(produto, pedido, (BigDecimal) linha[2],
+                    ((Number) linha[3]).intValue(), ((Number) linha[4]).intValue()));
+        }
+
+        return Optional.of(pedido);
+    }
+
+    // Dependendo do driver, colunas TIMESTAMP em consultas nativas chegam como java.sql.Timestamp
+    private static LocalDateTime paraData(Object valor) {
+        return valor instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) valor;
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.nathan.desafiosergipetec.consultas;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.otds.OTDResumoPedidos;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Agrupamento ("single-flight") de buscas de pedidos idênticas e simultâneas.
+ *
+ * No início do expediente dezenas de operadores abrem a tela de pedidos ao mesmo tempo, disparando a mesma busca.
+ * Aqui a primeira requisição executa a consulta e as demais, com os mesmos filtros, apenas aguardam e recebem
+ * o mesmo resultado: uma única execução no banco para todas.
+ *
+ * Opcionalmente (pedidos.busca.cache-ttl-ms > 0) o resultado fica em cache por alguns instantes.
+ * Cada novo pedido confirmado avança a "geração": o cache é descartado e buscas já em andamento deixam de
+ * ser compartilhadas com requisições novas, que nunca recebem um resultado anterior ao pedido.
+ */
+@Service
+public class CoalescedorBuscaPedidos {
+
+    // Acima deste número de combinações de filtros em cache, o cache é esvaziado (evita crescer sem limite)
+    private static final int TAMANHO_MAXIMO_CACHE = 1000;
+
+    private final long ttlCacheNanos;
+
+    private final AtomicLong geracao = new AtomicLong();
+    private final Map<Chave, CompletableFuture<OTDResumoPedidos>> emAndamento = new ConcurrentHashMap<>();
+    private final Map<Chave, ResultadoEmCache> cache = new ConcurrentHashMap<>();
+
+    public CoalescedorBuscaPedidos(@Value("${pedidos.busca.cache-ttl-ms:0}") long ttlCacheMillis) {
+        this.ttlCacheNanos = ttlCacheMillis * 1_000_000L;
+    }
+
+    /**
+     * Executa a "consulta" para o filtro informado, compartilhando a execução com as requisições
+     * simultâneas que usarem o mesmo filtro.
+     */
+    public OTDResumoPedidos buscar(FiltroBuscaPedidos filtro, Supplier<OTDResumoPedidos> consulta) {
+        Chave chave = new Chave(filtro, geracao.get());
+
+        if (ttlCacheNanos > 0) {
+            ResultadoEmCache emCache = cache.get(chave);
+            if (emCache != null && System.nanoTime() < emCache.expiraEm) {
+                return emCache.resumo;
+            }
+        }
+
+        CompletableFuture<OTDResumoPedidos> novaExecucao = new CompletableFuture<>();
+        CompletableFuture<OTDResumoPedidos> existente = emAndamento.putIfAbsent(chave, novaExecucao);
+
+        if (existente != null) {
+            // Já existe a mesma busca em andamento: apenas aguarda o resultado dela
+            try {
+                return existente.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error erro) {
+                    throw erro;
+                }
+                throw e.getCause() instanceof RuntimeException causa ? causa : e;
+            }
+        }
+
+        try {
+            OTDResumoPedidos resumo = consulta.get();
+            novaExecucao.complete(resumo);
+
+            // Só guarda no cache se nenhum pedido novo chegou durante a consulta
+            if (ttlCacheNanos > 0 && chave.geracao == geracao.get()) {
+                if (cache.size() >= TAMANHO_MAXIMO_CACHE) {
+                    cache.clear();
+                }
+                cache.put(chave, new ResultadoEmCache(resumo, System.nanoTime() + ttlCacheNanos));
+            }
+            return resumo;
+        } catch (Throwable e) {
+            // Qualquer falha (inclusive Error) precisa chegar a quem está esperando, senão o join() nunca retorna
+            novaExecucao.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, novaExecucao);
+        }
+    }
+
+    // Novo pedido confirmado: os resultados anteriores deixam de ser válidos
+    @TransactionalEventListener
+    public void aoCriarPedido(EventoPedidoCriado evento) {
+        geracao.incrementAndGet();
+        cache.clear();
+    }
+
+    private record Chave(FiltroBuscaPedidos filtro, long geracao) {
+    }
+
+    private record ResultadoEmCache(OTDResumoPedidos resumo, long expiraEm) {
+    }
+}
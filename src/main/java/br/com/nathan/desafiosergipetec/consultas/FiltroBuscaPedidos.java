@@ -0,0 +1,32 @@
+package br.com.nathan.desafiosergipetec.consultas;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Conjunto normalizado de filtros da busca de pedidos, usado como chave do CoalescedorBuscaPedidos.
+ *
+ * A normalização faz buscas equivalentes gerarem a mesma chave: textos são aparados e convertidos para minúsculas
+ * (a busca já ignora maiúsculas) e textos vazios viram null ("sem filtro").
+ */
+public record FiltroBuscaPedidos(Long id, Long clienteId, String nomeCliente, Long produtoId,
+        String descricaoProduto, LocalDateTime dataInicio, LocalDateTime dataFim) {
+
+    public FiltroBuscaPedidos {
+        nomeCliente = normalizar(nomeCliente);
+        descricaoProduto = normalizar(descricaoProduto);
+    }
+
+    // Filtro vazio, usado pela listagem de todos os pedidos
+    public static FiltroBuscaPedidos semFiltros() {
+        return new FiltroBuscaPedidos(null, null, null, null, null, null, null);
+    }
+
+    private static String normalizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        // Locale.ROOT: a chave não pode depender do idioma do servidor (no turco, "I" viraria "ı")
+        return texto.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.nathan.desafiosergipetec.consultas;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import br.com.nathan.desafiosergipetec.arquivamento.ServicoArquivamento;
+import br.com.nathan.desafiosergipetec.entidades.Pedido;
+import br.com.nathan.desafiosergipetec.otds.OTDPedido;
+import br.com.nathan.desafiosergipetec.otds.OTDResumoPedidos;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Busca de pedidos sobre os pedidos ativos e o arquivo frio, usada pela tela de pedidos (ControladorPedido),
+ * pelo histórico do cliente (ControladorCliente) e pelos relatórios mensais pré-calculados (ServicoRelatoriosMensais).
+ */
+@Service
+public class ServicoBuscaPedidos {
+
+    private final RepositorioPedido repositorioPedido;
+    private final ServicoArquivamento servicoArquivamento;
+
+    public ServicoBuscaPedidos(RepositorioPedido repositorioPedido, ServicoArquivamento servicoArquivamento) {
+        this.repositorioPedido = repositorioPedido;
+        this.servicoArquivamento = servicoArquivamento;
+    }
+
+    /**
+     * Busca nos pedidos ativos e, somente quando o período pedido alcança pedidos já arquivados,
+     * também no arquivo frio. Assim as buscas do dia a dia não pagam o custo de consultar o arquivo.
+     */
+    public OTDResumoPedidos buscarAtivosEArquivados(FiltroBuscaPedidos filtro) {
+        List<OTDPedido> pedidos = repositorioPedido.buscarComFiltros(
+                filtro.id(), filtro.clienteId(), filtro.nomeCliente(), filtro.produtoId(),
+                filtro.descricaoProduto(), filtro.dataInicio(), filtro.dataFim());
+
+        if (servicoArquivamento.deveConsultarArquivo(filtro.dataInicio())) {
+            pedidos = new ArrayList<>(pedidos);
+            pedidos.addAll(servicoArquivamento.buscarComFiltros(
+                    filtro.id(), filtro.clienteId(), filtro.nomeCliente(), filtro.produtoId(),
+                    filtro.descricaoProduto(), filtro.dataInicio(), filtro.dataFim()));
+        }
+
+        return new OTDResumoPedidos(pedidos);
+    }
+
+    // Pedido completo pelo ID: primeiro nos pedidos ativos, depois no arquivo frio
+    public Optional<Pedido> buscarPorId(Long id) {
+        Optional<Pedido> ativo = repositorioPedido.findById(id);
+        return ativo.isPresent() ? ativo : servicoArquivamento.buscarPedido(id);
+    }
+
+    /**
+     * Uma página do histórico de pedidos do cliente (até "limite" pedidos, do mais recente para o mais antigo),
+     * juntando pedidos ativos e arquivados com o mesmo cursor (antesDe, antesDeId).
+     * O arquivo só é consultado quando a página alcança o período arquivado (ex: os pedidos ativos acabaram).
+     */
+    public List<OTDPedido> buscarHistoricoCliente(Long clienteId, LocalDateTime antesDe, Long antesDeId, int limite) {
+        Limit limiteConsulta = Limit.of(limite);
+        List<OTDPedido> pedidos = (antesDe == null)
+                ? repositorioPedido.buscarHistoricoCliente(clienteId, limiteConsulta)
+                : repositorioPedido.buscarHistoricoClienteApos(clienteId, antesDe, antesDeId, limiteConsulta);
+
+        LocalDateTime alcance = pedidos.size() < limite ? null : pedidos.getLast().getDataPedido();
+        if (!servicoArquivamento.deveConsultarArquivo(alcance)) {
+            return pedidos;
+        }
+
+        List<OTDPedido> juntos = new ArrayList<>(pedidos);
+        juntos.addAll(servicoArquivamento.buscarHistoricoCliente(clienteId, antesDe, antesDeId, limite));
+        juntos.sort(Comparator.comparing(OTDPedido::getDataPedido).thenComparing(OTDPedido::getId).reversed());
+        return juntos.size() > limite ? new ArrayList<>(juntos.subList(0, limite)) : juntos;
+    }
+}
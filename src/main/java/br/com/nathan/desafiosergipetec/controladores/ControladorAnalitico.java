@@ -0,0 +1,52 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.nathan.desafiosergipetec.analitico.Agrupamento;
+import br.com.nathan.desafiosergipetec.analitico.MotorAnalitico;
+import br.com.nathan.desafiosergipetec.otds.OTDResultadoAnalitico;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador REST responsável pelas consultas analíticas (faturamento por produto, por cliente, por período, etc.).
+ * As respostas são calculadas pelo MotorAnalitico, em memória, sem consultar o PostgreSQL.
+ */
+@RestController // Define que é uma API REST (retorna JSON)
+@RequestMapping("/api/analytics") // Prefixo da URL
+@CrossOrigin("*") // Permite que o Frontend acesse sem bloqueio (CORS)
+public class ControladorAnalitico {
+
+    private final MotorAnalitico motorAnalitico;
+
+    public ControladorAnalitico(MotorAnalitico motorAnalitico) {
+        this.motorAnalitico = motorAnalitico;
+    }
+
+    /**
+     * GET: Agregação dos itens vendidos
+     * 
+     * agrupamento: total, produto, cliente, dia, mes ou desconto (padrão: total).
+     * Os demais filtros são opcionais e podem ser combinados livremente.
+     */
+    @GetMapping
+    public ResponseEntity<OTDResultadoAnalitico> consultar(
+            @RequestParam(defaultValue = "total") String agrupamento,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate dataFim,
+            @RequestParam(required = false) Long produtoId,
+            @RequestParam(required = false) Long clienteId) {
+
+        Agrupamento tipoAgrupamento = Agrupamento.deTexto(agrupamento);
+
+        if (tipoAgrupamento == null) {
+            // Retorna 400 se o agrupamento não existir
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Retorna 200 OK com os grupos calculados
+        return ResponseEntity.ok(motorAnalitico.consultar(tipoAgrupamento, dataInicio, dataFim, produtoId, clienteId));
+    }
+}
@@ -1,12 +1,17 @@
 package br.com.nathan.desafiosergipetec.controladores;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import br.com.nathan.desafiosergipetec.consultas.ServicoBuscaPedidos;
 import br.com.nathan.desafiosergipetec.entidades.Cliente;
+import br.com.nathan.desafiosergipetec.otds.OTDPaginaPedidosCliente;
+import br.com.nathan.desafiosergipetec.otds.OTDPedido;
 import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,10 +24,18 @@ import java.util.List;
 @CrossOrigin("*") // Permite que o Frontend acesse sem bloqueio (CORS)
 public class ControladorCliente {
 
+    // Quantidade máxima de resultados devolvidos pela busca textual
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
+    // Quantidade máxima de pedidos por página no histórico do cliente
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+
     private final RepositorioCliente repository;
+    private final ServicoBuscaPedidos servicoBusca;
 
-    public ControladorCliente(RepositorioCliente repository) {
+    public ControladorCliente(RepositorioCliente repository, ServicoBuscaPedidos servicoBusca) {
         this.repository = repository;
+        this.servicoBusca = servicoBusca;
     }
 
     // POST: Cadastrar cliente
@@ -43,10 +56,24 @@ public class ControladorCliente {
         return ResponseEntity.ok(clientes);
     }
 
-    // GET: Consultar cliente por Nome ou ID (identificador)
+    /**
+     * GET: Consultar clientes por Nome ou ID (identificador)
+     * 
+     * Se o identificador for numérico, a busca é feita pela chave primária (índice da PK).
+     * Caso contrário, é feita a busca textual por similaridade, limitada a "limite" resultados.
+     */
     @GetMapping("/{identificador}")
-    public ResponseEntity<List<Cliente>> consultaCliente(@PathVariable String identificador) {
-        List<Cliente> encontrados = repository.buscarPorNomeOuId(identificador);
+    public ResponseEntity<List<Cliente>> consultaCliente(@PathVariable String identificador,
+            @RequestParam(defaultValue = "20") int limite) {
+        List<Cliente> encontrados;
+
+        // Tenta converter o identificador para ID, se falhar assume que é um texto
+        try {
+            Long id = Long.parseLong(identificador.trim());
+            encontrados = repository.buscarPorId(id).map(List::of).orElseGet(List::of);
+        } catch (NumberFormatException e) {
+            encontrados = repository.buscarPorNome(identificador.trim(), Math.clamp(limite, 1, LIMITE_MAXIMO_BUSCA));
+        }
 
         if (encontrados.isEmpty()) {
             // Retorna 404 se não achar nada
@@ -54,6 +81,49 @@ public class ControladorCliente {
         }
 
         // Retorna 200 com a lista de resultados
-        return ResponseEntity.ok(encontrados); 
+        return ResponseEntity.ok(encontrados);
+    }
+
+    /**
+     * GET: Histórico de pedidos do cliente, do mais recente para o mais antigo
+     * 
+     * Paginação por chave: a primeira página é pedida sem cursor; as seguintes enviam "antesDe" e "antesDeId"
+     * com os valores de "proximaData" e "proximoId" da página anterior.
+     * Os pedidos arquivados entram no final do histórico (ver ServicoBuscaPedidos).
+     */
+    @GetMapping("/{id}/pedidos")
+    public ResponseEntity<OTDPaginaPedidosCliente> historicoPedidos(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDe,
+            @RequestParam(required = false) Long antesDeId,
+            @RequestParam(defaultValue = "20") int limite) {
+        Cliente cliente = repository.buscarPorId(id).orElse(null);
+
+        if (cliente == null) {
+            // Retorna 404 se o cliente não existir
+            return ResponseEntity.notFound().build();
+        }
+        if ((antesDe == null) != (antesDeId == null)) {
+            // Retorna 400 se o cursor vier incompleto
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Busca um pedido a mais que o limite apenas para saber se existe uma próxima página
+        int tamanhoPagina = Math.clamp(limite, 1, LIMITE_MAXIMO_PAGINA);
+        List<OTDPedido> pedidos = servicoBusca.buscarHistoricoCliente(id, antesDe, antesDeId, tamanhoPagina + 1);
+
+        LocalDateTime proximaData = null;
+        Long proximoId = null;
+        if (pedidos.size() > tamanhoPagina) {
+            pedidos = pedidos.subList(0, tamanhoPagina);
+            OTDPedido ultimo = pedidos.get(tamanhoPagina - 1);
+            proximaData = ultimo.getDataPedido();
+            proximoId = ultimo.getId();
+        }
+
+        // O nome é o mesmo para todos os pedidos da página, então não é buscado linha a linha no banco
+        pedidos.forEach(pedido -> pedido.setNomeCliente(cliente.getNome()));
+
+        // Retorna 200 OK com a página de pedidos
+        return ResponseEntity.ok(new OTDPaginaPedidosCliente(id, cliente.getNome(), pedidos, proximaData, proximoId));
     }
 }
\ No newline at end of file
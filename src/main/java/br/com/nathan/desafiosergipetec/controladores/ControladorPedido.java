@@ -1,26 +1,34 @@
 package br.com.nathan.desafiosergipetec.controladores;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import br.com.nathan.desafiosergipetec.consultas.CoalescedorBuscaPedidos;
+import br.com.nathan.desafiosergipetec.consultas.FiltroBuscaPedidos;
+import br.com.nathan.desafiosergipetec.consultas.ServicoBuscaPedidos;
 import br.com.nathan.desafiosergipetec.entidades.Cliente;
 import br.com.nathan.desafiosergipetec.entidades.ItemPedido;
 import br.com.nathan.desafiosergipetec.entidades.Pedido;
 import br.com.nathan.desafiosergipetec.entidades.Produto;
-import br.com.nathan.desafiosergipetec.otds.OTDPedido;
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.otds.OTDCotacaoPedido;
 import br.com.nathan.desafiosergipetec.otds.OTDPedidoRequest;
 import br.com.nathan.desafiosergipetec.otds.OTDProdutoRequest;
 import br.com.nathan.desafiosergipetec.otds.OTDResumoPedidos;
 import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
 import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
 import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+import br.com.nathan.desafiosergipetec.reservas.ServicoReservas;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST responsável pelo gerenciamento dos pedidos.
@@ -35,13 +43,25 @@ public class ControladorPedido {
     private final RepositorioPedido repositorioPedido;
     private final RepositorioCliente repositorioCliente;
     private final RepositorioProduto repositorioProduto;
+    private final ApplicationEventPublisher publicadorEventos;
+    private final ServicoBuscaPedidos servicoBusca;
+    private final CoalescedorBuscaPedidos coalescedorBusca;
+    private final ServicoReservas servicoReservas;
 
     public ControladorPedido(RepositorioPedido repositorioPedido,
             RepositorioCliente repositorioCliente,
-            RepositorioProduto repositorioProduto) {
+            RepositorioProduto repositorioProduto,
+            ApplicationEventPublisher publicadorEventos,
+            ServicoBuscaPedidos servicoBusca,
+            CoalescedorBuscaPedidos coalescedorBusca,
+            ServicoReservas servicoReservas) {
         this.repositorioPedido = repositorioPedido;
         this.repositorioCliente = repositorioCliente;
         this.repositorioProduto = repositorioProduto;
+        this.publicadorEventos = publicadorEventos;
+        this.servicoBusca = servicoBusca;
+        this.coalescedorBusca = coalescedorBusca;
+        this.servicoReservas = servicoReservas;
     }
 
     /**
@@ -66,17 +86,43 @@ public class ControladorPedido {
             throw new RuntimeException("Cliente não encontrado");
         }
 
+        // Busca todos os produtos do pedido numa única consulta (em vez de uma por item), travando as linhas:
+        // o estoque lido aqui não muda até o commit, então a conferência e a baixa abaixo não disputam com outros pedidos
+        Map<Long, Produto> produtos = repositorioProduto.travarProdutosDosItens(dto.getItens());
+
+        // Reserva do carrinho (opcional): o que ainda resta dela para cada produto e o que já foi consumido.
+        // Uma reserva expirada vem vazia, e todos os itens passam pela conferência de estoque abaixo.
+        Map<Long, Integer> restanteDaReserva = dto.getReservaId() != null
+                ? new HashMap<>(servicoReservas.converter(dto.getReservaId()))
+                : new HashMap<>();
+        Map<Long, Integer> consumidoDaReserva = new HashMap<>();
+
         for (OTDProdutoRequest itemDto : dto.getItens()) {
-            // Busca o produto
-            Produto produto = repositorioProduto.buscarPorId(itemDto.getProdutoId()).orElse(null);
+            Produto produto = produtos.get(itemDto.getProdutoId());
 
             // Verifica se o produto foi encontrado
             if (produto == null) {
                 throw new RuntimeException("Produto não encontrado: ID " + itemDto.getProdutoId());
             }
 
-            // Validação e Baixa de Estoque
-            if (produto.getQuantidadeEstoque() < itemDto.getQuantidade()) {
+            // Mesmas regras de quantidade e desconto da cotação
+            String itemInvalido = itemDto.validar();
+            if (itemInvalido != null) {
+                throw new RuntimeException(itemInvalido);
+            }
+
+            // A parte coberta pela reserva não disputa com os outros carrinhos
+            int daReserva = Math.min(restanteDaReserva.getOrDefault(produto.getId(), 0), itemDto.getQuantidade());
+            restanteDaReserva.merge(produto.getId(), -daReserva, Integer::sum);
+            consumidoDaReserva.merge(produto.getId(), daReserva, Integer::sum);
+
+            // Validação e Baixa de Estoque: a quantidade inteira precisa existir no estoque travado do banco,
+            // e o restante ainda respeita o estoque reservado pelos outros carrinhos
+            int foraDaReserva = itemDto.getQuantidade() - daReserva;
+            int disponivel = produto.getQuantidadeEstoque() - daReserva
+                    - servicoReservas.reservado(produto.getId()) + consumidoDaReserva.get(produto.getId());
+            if (produto.getQuantidadeEstoque() < itemDto.getQuantidade()
+                    || (foraDaReserva > 0 && disponivel < foraDaReserva)) {
                 throw new RuntimeException("Estoque insuficiente para o produto: " + produto.getDescricao());
             }
             produto.setQuantidadeEstoque(produto.getQuantidadeEstoque() - itemDto.getQuantidade());
@@ -95,11 +141,37 @@ public class ControladorPedido {
             repositorioProduto.save(produto);
         }
 
+        // Calcula o total uma única vez, gravado junto com o pedido
+        pedido.recalcularValorTotal();
+
         // Salva o pedido e retorna 201 Created com o pedido criado no corpo da resposta
         Pedido pedidoSalvo = repositorioPedido.save(pedido);
+
+        // Avisa os módulos interessados (ex: analítico). Eles só são notificados após o commit da transação.
+        publicadorEventos.publishEvent(new EventoPedidoCriado(pedidoSalvo));
+
         return ResponseEntity.status(HttpStatus.CREATED).body(pedidoSalvo);
     }
 
+    /**
+     * POST: Cotação do carrinho (nada é gravado)
+     * 
+     * Recebe o mesmo OTD do cadastro e devolve, com uma única consulta ao banco, os preços atuais,
+     * o total de cada linha já com desconto, o total do pedido e se há estoque para cada item.
+     * O Frontend usa esta resposta para montar o carrinho, sem calcular preços nem validar estoque no navegador.
+     * 
+     * As mesmas regras do salvar são aplicadas: itens repetidos do mesmo produto consomem o mesmo estoque,
+     * e o total é arredondado uma única vez (classe Centavos), igual ao que será gravado no pedido.
+     * O estoque reservado por outros carrinhos não conta como disponível (ver ServicoReservas).
+     */
+    @PostMapping("/cotacao")
+    public ResponseEntity<OTDCotacaoPedido> cotar(@RequestBody OTDPedidoRequest dto) {
+        List<OTDProdutoRequest> itens = dto.getItens() != null ? dto.getItens() : List.of();
+
+        // Retorna 200 OK com a cotação (mesmo com itens indisponíveis, que vêm marcados individualmente)
+        return ResponseEntity.ok(servicoReservas.cotar(itens, dto.getReservaId()));
+    }
+
     /**
      * GET: Buscar pedidos com múltiplos filtros dinâmicos
      * 
@@ -145,30 +217,29 @@ public class ControladorPedido {
         LocalDateTime inicio = (dataInicio != null) ? dataInicio.atStartOfDay() : null;
         LocalDateTime fim = (dataFim != null) ? dataFim.atTime(23, 59, 59) : null;
 
-        // Chama o repositório passando os filtros (que podem ser nulos)
-        List<OTDPedido> pedidosEncontrados = repositorioPedido.buscarComFiltros(
+        // Busca passando os filtros (que podem ser nulos). Buscas idênticas e simultâneas compartilham a mesma execução.
+        FiltroBuscaPedidos filtro = new FiltroBuscaPedidos(
                 id, idCliente, nomeCliente, idProduto, descricaoProduto, inicio, fim);
 
         // Retorna 200 OK com a lista de pedidos encontrados no corpo da resposta
-        return ResponseEntity.ok(new OTDResumoPedidos(pedidosEncontrados));
+        return ResponseEntity.ok(coalescedorBusca.buscar(filtro, () -> servicoBusca.buscarAtivosEArquivados(filtro)));
     }
 
     // GET: Consultar todos os pedidos (sem filtros)
     @GetMapping("/todos")
     public ResponseEntity<OTDResumoPedidos> listarTodos() {
-        // Chama o repositório passando nulos para todos os filtros, o que deve retornar tudo
-        List<OTDPedido> todosOsPedidos = repositorioPedido.buscarComFiltros(
-                null, null, null, null, null, null, null);
+        // Sem nenhum filtro, o que deve retornar tudo
+        FiltroBuscaPedidos filtro = FiltroBuscaPedidos.semFiltros();
 
         // Retorna 200 OK com a lista de pedidos encontrados no corpo da resposta
-        return ResponseEntity.ok(new OTDResumoPedidos(todosOsPedidos));
+        return ResponseEntity.ok(coalescedorBusca.buscar(filtro, () -> servicoBusca.buscarAtivosEArquivados(filtro)));
     }
 
     // GET: Consultar pedido ID
     @GetMapping("/{id}")
     public ResponseEntity<Pedido> buscarPorId(@PathVariable Long id) {
-        // Chama o repositório passando o ID (e nulos para os outros filtros)
-        Pedido pedidoEncontrado = repositorioPedido.findById(id)
+        // Procura nos pedidos ativos e, se não achar, no arquivo frio
+        Pedido pedidoEncontrado = servicoBusca.buscarPorId(id)
                 .orElse(null);
 
         if (pedidoEncontrado == null) {
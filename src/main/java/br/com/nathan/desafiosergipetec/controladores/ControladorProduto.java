@@ -7,7 +7,9 @@ import org.springframework.web.bind.annotation.*;
 import br.com.nathan.desafiosergipetec.entidades.Produto;
 import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Controlador REST responsável pelo gerenciamento dos produtos. 
@@ -19,6 +21,12 @@ import java.util.List;
 @CrossOrigin("*") // Permite que o Frontend acesse sem bloqueio (CORS)
 public class ControladorProduto {
 
+    // Quantidade máxima de resultados devolvidos pela busca textual
+    private static final int LIMITE_MAXIMO_BUSCA = 100;
+
+    // Quantidade máxima de IDs aceitos numa consulta em lote
+    private static final int LIMITE_MAXIMO_LOTE = 100;
+
     private final RepositorioProduto repository;
 
     public ControladorProduto(RepositorioProduto repository) {
@@ -43,10 +51,44 @@ public class ControladorProduto {
         return ResponseEntity.ok(produtos);
     }
 
-    // GET: Consultar produtos por identificador (ID ou Descrição)
+    /**
+     * GET: Consultar vários produtos de uma só vez (ex: /api/produtos/lote?ids=1,2,3)
+     * 
+     * Uma única consulta ao banco para todos os IDs, em vez de uma requisição por produto.
+     * IDs inexistentes são ignorados: o Frontend confere pelo "id" de cada produto devolvido.
+     */
+    @GetMapping("/lote")
+    public ResponseEntity<List<Produto>> consultaLote(@RequestParam List<Long> ids) {
+        Set<Long> idsDistintos = new LinkedHashSet<>(ids);
+        idsDistintos.remove(null);
+
+        if (idsDistintos.isEmpty() || idsDistintos.size() > LIMITE_MAXIMO_LOTE) {
+            // Retorna 400 se não houver IDs ou se o lote for grande demais
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Retorna 200 com os produtos encontrados (ordenados pelo ID)
+        return ResponseEntity.ok(repository.buscarPorIds(idsDistintos));
+    }
+
+    /**
+     * GET: Consultar produtos por Descrição ou ID (identificador)
+     * 
+     * Se o identificador for numérico, a busca é feita pela chave primária (índice da PK).
+     * Caso contrário, é feita a busca textual por similaridade, limitada a "limite" resultados.
+     */
     @GetMapping("/{identificador}")
-    public ResponseEntity<List<Produto>> consultaProduto(@PathVariable String identificador) {
-        List<Produto> encontrados = repository.buscarPorDescricaoOuId(identificador);
+    public ResponseEntity<List<Produto>> consultaProduto(@PathVariable String identificador,
+            @RequestParam(defaultValue = "20") int limite) {
+        List<Produto> encontrados;
+
+        // Tenta converter o identificador para ID, se falhar assume que é um texto
+        try {
+            Long id = Long.parseLong(identificador.trim());
+            encontrados = repository.buscarPorId(id).map(List::of).orElseGet(List::of);
+        } catch (NumberFormatException e) {
+            encontrados = repository.buscarPorDescricao(identificador.trim(), Math.clamp(limite, 1, LIMITE_MAXIMO_BUSCA));
+        }
 
         if (encontrados.isEmpty()) {
             // Retorna 404 se não achar nada
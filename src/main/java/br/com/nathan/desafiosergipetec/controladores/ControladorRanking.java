@@ -0,0 +1,60 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.nathan.desafiosergipetec.otds.OTDPosicaoRanking;
+import br.com.nathan.desafiosergipetec.ranking.CriterioRanking;
+import br.com.nathan.desafiosergipetec.ranking.RankingVendas;
+
+import java.util.List;
+
+/**
+ * Controlador REST responsável pelos rankings de vendas ("mais vendidos" e "melhores clientes").
+ * Os valores vêm dos contadores incrementais do RankingVendas, sem agregar tb_itens_pedido a cada requisição.
+ */
+@RestController // Define que é uma API REST (retorna JSON)
+@RequestMapping("/api/ranking") // Prefixo da URL
+@CrossOrigin("*") // Permite que o Frontend acesse sem bloqueio (CORS)
+public class ControladorRanking {
+
+    // Limite máximo de posições por consulta, mantendo o heap do top-K pequeno
+    private static final int LIMITE_MAXIMO = 100;
+
+    private final RankingVendas rankingVendas;
+
+    public ControladorRanking(RankingVendas rankingVendas) {
+        this.rankingVendas = rankingVendas;
+    }
+
+    // GET: Produtos mais vendidos nos últimos "dias"
+    @GetMapping("/produtos")
+    public ResponseEntity<List<OTDPosicaoRanking>> produtosMaisVendidos(
+            @RequestParam(defaultValue = "faturamento") String criterio,
+            @RequestParam(defaultValue = "30") int dias,
+            @RequestParam(defaultValue = "10") int limite) {
+        return consultar(true, criterio, dias, limite);
+    }
+
+    // GET: Clientes que mais compraram nos últimos "dias"
+    @GetMapping("/clientes")
+    public ResponseEntity<List<OTDPosicaoRanking>> melhoresClientes(
+            @RequestParam(defaultValue = "faturamento") String criterio,
+            @RequestParam(defaultValue = "30") int dias,
+            @RequestParam(defaultValue = "10") int limite) {
+        return consultar(false, criterio, dias, limite);
+    }
+
+    private ResponseEntity<List<OTDPosicaoRanking>> consultar(boolean produtos, String criterio, int dias, int limite) {
+        CriterioRanking tipoCriterio = CriterioRanking.deTexto(criterio);
+
+        // Retorna 400 se o critério não existir ou se a janela/limite estiverem fora do permitido
+        if (tipoCriterio == null || dias < 1 || dias > rankingVendas.getRetencaoDias()
+                || limite < 1 || limite > LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // Retorna 200 OK com as posições do ranking
+        return ResponseEntity.ok(rankingVendas.consultar(produtos, tipoCriterio, dias, limite));
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import tools.jackson.databind.util.ByteBufferBackedInputStream;
+
+import br.com.nathan.desafiosergipetec.relatorios.ServicoRelatoriosMensais;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Controlador REST dos relatórios de pedidos pré-calculados (meses encerrados).
+ * O conteúdo é o mesmo de /api/pedidos/buscar com o mês inteiro no filtro de datas.
+ */
+@RestController // Define que é uma API REST (retorna JSON)
+@RequestMapping("/api/pedidos/relatorios") // Prefixo da URL
+@CrossOrigin("*") // Permite que o Frontend acesse sem bloqueio (CORS)
+public class ControladorRelatorio {
+
+    private final ServicoRelatoriosMensais servicoRelatorios;
+    private final int segundosNovaTentativa;
+
+    public ControladorRelatorio(ServicoRelatoriosMensais servicoRelatorios,
+            @Value("${relatorios.segundos-nova-tentativa:5}") int segundosNovaTentativa) {
+        this.servicoRelatorios = servicoRelatorios;
+        this.segundosNovaTentativa = segundosNovaTentativa;
+    }
+
+    /**
+     * GET: Relatório mensal de pedidos (ex: /api/pedidos/relatorios/mensal?mes=2026-09)
+     *
+     * O JSON já está gravado em disco, compactado com gzip. Para clientes que aceitam gzip (praticamente todos),
+     * o arquivo mapeado em memória é enviado como está, com "Content-Encoding: gzip".
+     * Para os demais, é descompactado durante o envio, lendo do mesmo mapeamento (nunca do arquivo pelo caminho:
+     * uma nova versão do relatório pode apagá-lo enquanto a resposta ainda está sendo enviada).
+     *
+     * Um relatório que ainda não existe é gerado em segundo plano; enquanto isso a resposta é 503 com Retry-After.
+     */
+    @GetMapping("/mensal")
+    public ResponseEntity<StreamingResponseBody> mensal(@RequestParam String mes,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String codificacoesAceitas) {
+        YearMonth mesRelatorio;
+
+        // Tenta converter o mês no formato yyyy-MM
+        try {
+            mesRelatorio = YearMonth.parse(mes.trim());
+        } catch (DateTimeParseException e) {
+            // Retorna 400 se o mês for inválido
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (!ServicoRelatoriosMensais.encerrado(mesRelatorio)) {
+            // Retorna 400 para o mês atual ou futuro (ainda em aberto: usar /api/pedidos/buscar)
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<ServicoRelatoriosMensais.Relatorio> pronto = servicoRelatorios.obter(mesRelatorio);
+
+        if (pronto.isEmpty()) {
+            // Retorna 503 enquanto o relatório é gerado, indicando quando tentar de novo
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(segundosNovaTentativa))
+                    .build();
+        }
+
+        // Cada requisição lê com a sua própria posição, sem copiar o conteúdo mapeado
+        ByteBuffer conteudo = pronto.get().conteudo().duplicate();
+
+        if (aceitaGzip(codificacoesAceitas)) {
+
+            // Retorna 200 OK com o relatório já compactado
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .contentLength(conteudo.remaining())
+                    .body(saida -> Channels.newChannel(saida).write(conteudo));
+        }
+
+        // Retorna 200 OK com o relatório descompactado durante o envio
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(saida -> {
+                    try (InputStream entrada = new GZIPInputStream(new ByteBufferBackedInputStream(conteudo))) {
+                        entrada.transferTo(saida);
+                    }
+                });
+    }
+
+    /**
+     * Interpreta o cabeçalho Accept-Encoding (ex: "br, gzip;q=0.8, *;q=0.1").
+     * O gzip só é usado se o token "gzip" (ou o curinga "*") vier com q maior que zero.
+     * Uma menção explícita vale mais que o curinga: "gzip;q=0, *" recusa o gzip.
+     */
+    static boolean aceitaGzip(String codificacoesAceitas) {
+        if (codificacoesAceitas == null) {
+            return false;
+        }
+
+        Boolean curinga = null;
+        for (String codificacao : codificacoesAceitas.split(",")) {
+            String[] partes = codificacao.split(";");
+            String nome = partes[0].trim();
+            double q = 1.0;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.length() > 2 && parametro.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        q = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // Valor de q inválido: a codificação é tratada como não aceita
+                        q = 0;
+                    }
+                }
+            }
+
+            if (nome.equalsIgnoreCase("gzip")) {
+                return q > 0;
+            }
+            if (nome.equals("*")) {
+                curinga = q > 0;
+            }
+        }
+        return curinga != null && curinga;
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import br.com.nathan.desafiosergipetec.otds.OTDPedidoRequest;
+import br.com.nathan.desafiosergipetec.otds.OTDReserva;
+import br.com.nathan.desafiosergipetec.reservas.ServicoReservas;
+
+import java.util.Optional;
+
+/**
+ * Controlador REST das reservas temporárias de estoque do carrinho.
+ *
+ * Enquanto o operador monta o pedido, as quantidades do carrinho ficam seguradas por alguns minutos
+ * (reservas.ttl-segundos). Ao confirmar, o "reservaId" é enviado junto do pedido e o estoque já garantido
+ * vira venda, sem o risco de o pedido falhar no final por falta de estoque.
+ */
+@RestController // Define que é uma API REST (retorna JSON)
+@RequestMapping("/api/reservas") // Prefixo da URL
+@CrossOrigin("*") // Permite que o Frontend acesse sem bloqueio (CORS)
+public class ControladorReserva {
+
+    private final ServicoReservas servicoReservas;
+
+    public ControladorReserva(ServicoReservas servicoReservas) {
+        this.servicoReservas = servicoReservas;
+    }
+
+    // POST: Reservar o carrinho (mesmo OTD do cadastro de pedidos; o cliente é opcional)
+    @PostMapping
+    public ResponseEntity<OTDReserva> reservar(@RequestBody OTDPedidoRequest dto) {
+        if (dto.getItens() == null || dto.getItens().isEmpty()) {
+            // Retorna 400 se o carrinho estiver vazio
+            return ResponseEntity.badRequest().build();
+        }
+
+        OTDReserva reserva = servicoReservas.criar(dto.getItens());
+
+        if (!reserva.getCotacao().isDisponivel()) {
+            // Retorna 409 Conflict com a cotação indicando os itens que não puderam ser reservados
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(reserva);
+        }
+
+        // Retorna 201 Created com a reserva e a cotação do carrinho
+        return ResponseEntity.status(HttpStatus.CREATED).body(reserva);
+    }
+
+    // PUT: Atualizar a reserva com o carrinho alterado (renova o prazo)
+    @PutMapping("/{id}")
+    public ResponseEntity<OTDReserva> atualizar(@PathVariable String id, @RequestBody OTDPedidoRequest dto) {
+        if (dto.getItens() == null || dto.getItens().isEmpty()) {
+            // Retorna 400 se o carrinho estiver vazio (para esvaziar, a reserva deve ser cancelada)
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<OTDReserva> reserva = servicoReservas.atualizar(id, dto.getItens());
+
+        if (reserva.isEmpty()) {
+            // Retorna 404 se a reserva expirou, foi cancelada ou já virou pedido
+            return ResponseEntity.notFound().build();
+        }
+
+        if (!reserva.get().getCotacao().isDisponivel()) {
+            // Retorna 409 Conflict: a reserva anterior continua valendo como estava
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(reserva.get());
+        }
+
+        // Retorna 200 OK com a reserva renovada
+        return ResponseEntity.ok(reserva.get());
+    }
+
+    // DELETE: Cancelar a reserva, liberando o estoque imediatamente
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelar(@PathVariable String id) {
+        if (!servicoReservas.cancelar(id)) {
+            // Retorna 404 se a reserva não existir mais
+            return ResponseEntity.notFound().build();
+        }
+
+        // Retorna 204 No Content
+        return ResponseEntity.noContent().build();
+    }
+}
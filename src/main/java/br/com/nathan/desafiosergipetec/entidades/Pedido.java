@@ -2,8 +2,12 @@ package br.com.nathan.desafiosergipetec.entidades;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Generated;
+
+import br.com.nathan.desafiosergipetec.financeiro.Centavos;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -33,10 +37,19 @@ public class Pedido implements Serializable {
     /**
      * A data do pedido é gerada automaticamente pelo banco de dados (DEFAULT CURRENT_TIMESTAMP).
      * insertable = false e updatable = false impedem que a aplicação tente sobrescrever esse valor.
+     * @Generated: Após o INSERT o Hibernate relê o valor gerado, deixando a data preenchida no pedido salvo.
      */
+    @Generated
     @Column(name = "data_pedido", insertable = false, updatable = false)
     private LocalDateTime dataPedido;
 
+    /**
+     * Valor total do pedido (com os descontos de cada item), calculado uma única vez ao salvar.
+     * Evita somar os itens novamente em cada consulta, como no histórico de pedidos do cliente.
+     */
+    @Column(name = "valor_total", precision = 12, scale = 2, nullable = false)
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
     /**
      * Relacionamento 1:N com ItemPedido.
      * * @JsonManagedReference: Resolve o problema de referência circular (StackOverflow) 
@@ -70,6 +83,20 @@ public class Pedido implements Serializable {
         item.setPedido(this);
     }
 
+    /**
+     * Recalcula o valor total a partir dos itens: soma de (quantidade * valor * (100 - desconto) / 100).
+     * A soma é feita em inteiros (classe Centavos), de forma exata, e o arredondamento (HALF_UP, 2 casas)
+     * é aplicado apenas no final, como faz a consulta buscarComFiltros do RepositorioPedido.
+     */
+    public void recalcularValorTotal() {
+        long somaEmFracao = 0;
+        for (ItemPedido item : itens) {
+            int desconto = item.getDescontoPercentual() != null ? item.getDescontoPercentual() : 0;
+            somaEmFracao += Centavos.totalItemEmFracao(item.getQuantidadeItens(), Centavos.deReais(item.getValor()), desconto);
+        }
+        this.valorTotal = Centavos.paraReais(Centavos.arredondar(somaEmFracao));
+    }
+
     // GETTERS E SETTERS
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -80,6 +107,9 @@ public class Pedido implements Serializable {
     public LocalDateTime getDataPedido() { return dataPedido; }
     public void setDataPedido(LocalDateTime dataPedido) { this.dataPedido = dataPedido; }
 
+    public BigDecimal getValorTotal() { return valorTotal; }
+    public void setValorTotal(BigDecimal valorTotal) { this.valorTotal = valorTotal; }
+
     public List<ItemPedido> getItens() { return itens; }
     public void setItens(List<ItemPedido> itens) { this.itens = itens; }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package br.com.nathan.desafiosergipetec.entidades;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade que representa um pedido antigo movido para o arquivo frio
+ * Mapeada para a tabela 'arquivo.tb_pedidos_arquivados'
+ * 
+ * As linhas são gravadas apenas pelo ServicoArquivamento (via SQL nativo), por isso a entidade é somente leitura.
+ */
+@Entity
+@Table(name = "tb_pedidos_arquivados", schema = "arquivo")
+public class PedidoArquivado implements Serializable {
+
+    // Mesmo ID que o pedido possuía em tb_pedidos (não é gerado novamente)
+    @Id
+    private Long id;
+
+    @Column(name = "cliente_id", nullable = false, updatable = false)
+    private Long clienteId;
+
+    // Nome do cliente copiado no arquivamento, evitando o JOIN com tb_clientes nas consultas
+    @Column(name = "nome_cliente", nullable = false, length = 150, updatable = false)
+    private String nomeCliente;
+
+    @Column(name = "data_pedido", nullable = false, updatable = false)
+    private LocalDateTime dataPedido;
+
+    @Column(name = "valor_total", nullable = false, precision = 12, scale = 2, updatable = false)
+    private BigDecimal valorTotal;
+
+    // Itens do pedido em JSONB (comprimido pelo PostgreSQL)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, updatable = false)
+    private String itens;
+
+    @Column(name = "data_arquivamento", insertable = false, updatable = false)
+    private LocalDateTime dataArquivamento;
+
+    // Construtor vazio (obrigatório para o JPA conseguir instanciar a classe)
+    public PedidoArquivado() {
+    }
+
+    // GETTERS
+    public Long getId() { return id; }
+    public Long getClienteId() { return clienteId; }
+    public String getNomeCliente() { return nomeCliente; }
+    public LocalDateTime getDataPedido() { return dataPedido; }
+    public BigDecimal getValorTotal() { return valorTotal; }
+    public String getItens() { return itens; }
+    public LocalDateTime getDataArquivamento() { return dataArquivamento; }
+}
@@ -0,0 +1,21 @@
+package br.com.nathan.desafiosergipetec.eventos;
+
+import br.com.nathan.desafiosergipetec.entidades.Pedido;
+
+/**
+ * Evento publicado pelo ControladorPedido sempre que um novo pedido é salvo.
+ * 
+ * Os ouvintes devem usar @TransactionalEventListener (fase AFTER_COMMIT), garantindo que
+ * só reajam a pedidos que realmente foram gravados no banco de dados (sem rollback).
+ */
+public class EventoPedidoCriado {
+
+    private final Pedido pedido;
+
+    public EventoPedidoCriado(Pedido pedido) {
+        this.pedido = pedido;
+    }
+
+    // GETTERS
+    public Pedido getPedido() { return pedido; }
+}
@@ -0,0 +1,60 @@
+package br.com.nathan.desafiosergipetec.financeiro;
+
+import java.math.BigDecimal;
+
+/**
+ * Aritmética monetária em inteiros (long), sem BigDecimal nos cálculos internos.
+ *
+ * Unidades utilizadas:
+ * - Centavos: valores já arredondados (preços, totais de pedidos). R$ 12,34 = 1234.
+ * - Fração (centésimos de centavo, 10^-4 reais): resultado exato de quantidade * centavos * (100 - desconto).
+ * Como o desconto é um percentual inteiro, o total de um item sempre cabe exatamente nesta unidade.
+ *
+ * Regra de arredondamento (idêntica à anterior, baseada em BigDecimal):
+ * os itens de um pedido são somados de forma exata, em fração, e o total é arredondado para centavos
+ * UMA única vez, com HALF_UP (0,5 centavo ou mais sobe). Isso reproduz o antigo
+ * SUM(quantidade * valor * (100 - desconto) / 100.0) seguido de setScale(2, RoundingMode.HALF_UP).
+ *
+ * O BigDecimal aparece apenas nas bordas: na leitura de colunas NUMERIC (deReais) e na resposta da API (paraReais).
+ */
+public final class Centavos {
+
+    // Quantidade de "frações" em um centavo
+    private static final long FRACOES_POR_CENTAVO = 100L;
+
+    private Centavos() {
+    }
+
+    /**
+     * Converte um valor em reais (ex: coluna NUMERIC(10, 2)) para centavos.
+     * Lança ArithmeticException se o valor tiver mais de 2 casas decimais diferentes de zero.
+     */
+    public static long deReais(BigDecimal reais) {
+        return reais.movePointRight(2).longValueExact();
+    }
+
+    // Converte centavos para reais com 2 casas decimais (uso apenas na borda da API)
+    public static BigDecimal paraReais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    // Total exato de um item (em fração): quantidade * valor unitário * (100 - desconto percentual)
+    public static long totalItemEmFracao(long quantidade, long valorCentavos, long descontoPercentual) {
+        return quantidade * valorCentavos * (100L - descontoPercentual);
+    }
+
+    // Total de um item sem desconto, na mesma unidade (fração), para comparações com o total com desconto
+    public static long totalBrutoEmFracao(long quantidade, long valorCentavos) {
+        return quantidade * valorCentavos * 100L;
+    }
+
+    /**
+     * Arredonda uma soma em fração para centavos, com HALF_UP (metade arredonda para longe do zero).
+     */
+    public static long arredondar(long fracao) {
+        if (fracao >= 0) {
+            return (fracao + FRACOES_POR_CENTAVO / 2) / FRACOES_POR_CENTAVO;
+        }
+        return -((-fracao + FRACOES_POR_CENTAVO / 2) / FRACOES_POR_CENTAVO);
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * OTD (Objeto de transferência de dados) com a cotação de um carrinho inteiro (POST /api/pedidos/cotacao).
+ *
+ * - valorBruto: soma dos itens sem desconto.
+ * - descontoTotal: diferença entre o bruto e o total.
+ * - valorTotal: exatamente o valor que será gravado no pedido ao confirmar (mesma regra de arredondamento).
+ * - disponivel: true somente se TODOS os itens puderem ser vendidos agora.
+ *
+ * Itens indisponíveis não entram nos totais.
+ */
+public class OTDCotacaoPedido {
+
+    private List<OTDItemCotacao> itens;
+    private BigDecimal valorBruto;
+    private BigDecimal descontoTotal;
+    private BigDecimal valorTotal;
+    private boolean disponivel;
+
+    public OTDCotacaoPedido(List<OTDItemCotacao> itens, BigDecimal valorBruto, BigDecimal descontoTotal,
+            BigDecimal valorTotal, boolean disponivel) {
+        this.itens = itens;
+        this.valorBruto = valorBruto;
+        this.descontoTotal = descontoTotal;
+        this.valorTotal = valorTotal;
+        this.disponivel = disponivel;
+    }
+
+    // GETTERS
+    public List<OTDItemCotacao> getItens() { return itens; }
+    public BigDecimal getValorBruto() { return valorBruto; }
+    public BigDecimal getDescontoTotal() { return descontoTotal; }
+    public BigDecimal getValorTotal() { return valorTotal; }
+    public boolean isDisponivel() { return disponivel; }
+}
@@ -0,0 +1,48 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import java.math.BigDecimal;
+
+/**
+ * OTD (Objeto de transferência de dados) que representa uma linha do resultado do motor analítico.
+ * 
+ * A "chave" depende do agrupamento escolhido (ID do produto, ID do cliente, dia, mês ou faixa de desconto).
+ */
+public class OTDGrupoAnalitico {
+
+    private String chave;
+
+    // Faturamento já com os descontos aplicados
+    private BigDecimal faturamento;
+
+    // Faturamento que existiria sem nenhum desconto
+    private BigDecimal faturamentoBruto;
+
+    // Diferença entre o bruto e o faturamento (impacto dos descontos)
+    private BigDecimal descontoConcedido;
+
+    private long quantidadeItens;
+    private long pedidos;
+
+    // Valor médio por pedido (faturamento / pedidos)
+    private BigDecimal ticketMedio;
+
+    public OTDGrupoAnalitico(String chave, BigDecimal faturamento, BigDecimal faturamentoBruto,
+            BigDecimal descontoConcedido, long quantidadeItens, long pedidos, BigDecimal ticketMedio) {
+        this.chave = chave;
+        this.faturamento = faturamento;
+        this.faturamentoBruto = faturamentoBruto;
+        this.descontoConcedido = descontoConcedido;
+        this.quantidadeItens = quantidadeItens;
+        this.pedidos = pedidos;
+        this.ticketMedio = ticketMedio;
+    }
+
+    // GETTERS
+    public String getChave() { return chave; }
+    public BigDecimal getFaturamento() { return faturamento; }
+    public BigDecimal getFaturamentoBruto() { return faturamentoBruto; }
+    public BigDecimal getDescontoConcedido() { return descontoConcedido; }
+    public long getQuantidadeItens() { return quantidadeItens; }
+    public long getPedidos() { return pedidos; }
+    public BigDecimal getTicketMedio() { return ticketMedio; }
+}
@@ -0,0 +1,52 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import java.math.BigDecimal;
+
+/**
+ * OTD (Objeto de transferência de dados) que representa um item do carrinho já validado e precificado pelo servidor.
+ *
+ * Quando o item não pode ser vendido (produto inexistente, quantidade/desconto inválidos ou estoque insuficiente),
+ * "disponivel" vem como false e "mensagem" explica o motivo. Nesse caso os valores vêm zerados.
+ */
+public class OTDItemCotacao {
+
+    private Long produtoId;
+    private String descricao;
+    private Integer quantidade;
+    private Integer desconto;
+
+    // Preço unitário atual do produto (tb_produtos.valor)
+    private BigDecimal valorUnitario;
+
+    // Total da linha já com o desconto aplicado, arredondado para centavos
+    private BigDecimal valorTotal;
+
+    private Integer quantidadeEstoque;
+    private boolean disponivel;
+    private String mensagem;
+
+    public OTDItemCotacao(Long produtoId, String descricao, Integer quantidade, Integer desconto,
+            BigDecimal valorUnitario, BigDecimal valorTotal, Integer quantidadeEstoque,
+            boolean disponivel, String mensagem) {
+        this.produtoId = produtoId;
+        this.descricao = descricao;
+        this.quantidade = quantidade;
+        this.desconto = desconto;
+        this.valorUnitario = valorUnitario;
+        this.valorTotal = valorTotal;
+        this.quantidadeEstoque = quantidadeEstoque;
+        this.disponivel = disponivel;
+        this.mensagem = mensagem;
+    }
+
+    // GETTERS
+    public Long getProdutoId() { return produtoId; }
+    public String getDescricao() { return descricao; }
+    public Integer getQuantidade() { return quantidade; }
+    public Integer getDesconto() { return desconto; }
+    public BigDecimal getValorUnitario() { return valorUnitario; }
+    public BigDecimal getValorTotal() { return valorTotal; }
+    public Integer getQuantidadeEstoque() { return quantidadeEstoque; }
+    public boolean isDisponivel() { return disponivel; }
+    public String getMensagem() { return mensagem; }
+}
@@ -0,0 +1,35 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * OTD (Objeto de transferência de dados) com uma página do histórico de pedidos de um cliente.
+ * 
+ * Os campos "proximaData" e "proximoId" formam o cursor da próxima página (paginação por chave).
+ * Eles devem ser enviados de volta como "antesDe" e "antesDeId". Quando vierem nulos, não há mais páginas.
+ */
+public class OTDPaginaPedidosCliente {
+
+    private Long clienteId;
+    private String nomeCliente;
+    private List<OTDPedido> pedidos;
+    private LocalDateTime proximaData;
+    private Long proximoId;
+
+    public OTDPaginaPedidosCliente(Long clienteId, String nomeCliente, List<OTDPedido> pedidos,
+            LocalDateTime proximaData, Long proximoId) {
+        this.clienteId = clienteId;
+        this.nomeCliente = nomeCliente;
+        this.pedidos = pedidos;
+        this.proximaData = proximaData;
+        this.proximoId = proximoId;
+    }
+
+    // GETTERS
+    public Long getClienteId() { return clienteId; }
+    public String getNomeCliente() { return nomeCliente; }
+    public List<OTDPedido> getPedidos() { return pedidos; }
+    public LocalDateTime getProximaData() { return proximaData; }
+    public Long getProximoId() { return proximoId; }
+}
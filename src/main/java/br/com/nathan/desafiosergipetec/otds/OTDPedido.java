@@ -1,7 +1,10 @@
 package br.com.nathan.desafiosergipetec.otds;
 
+import tools.jackson.databind.annotation.JsonSerialize;
+
+import br.com.nathan.desafiosergipetec.financeiro.Centavos;
+
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 /**
@@ -9,33 +12,44 @@ import java.time.LocalDateTime;
  * 
  * Carrega apenas as informações que a tabela precisa mostrar (ID, Cliente, Data e Total).
  * Evitando carregar a entidade completa, deixando o sistema mais rápido e leve.
+ * 
+ * A serialização é feita pelo SerializadorOTDPedido (streaming), pois esta é a linha repetida nas listagens grandes.
  */
+@JsonSerialize(using = SerializadorOTDPedido.class)
 public class OTDPedido {
 
     private Long id;
     private String nomeCliente;
     private LocalDateTime dataPedido;
-    private BigDecimal valorTotal;
+
+    // Valor total em centavos (long): o BigDecimal só é criado na resposta da API (getValorTotal)
+    private long valorTotalCentavos;
 
     /**
-     * Construtor usado pelo repositório para montar o DTO direto da consulta SQL.
+     * Construtor usado pelo repositório para montar o DTO direto da consulta SQL (buscarComFiltros).
      * O truque desta implementação:
-     * - Tipo Genérico ('Number'): Evita erros de conversão (ClassCastException) que acontecem 
-     * quando o SUM() do banco retorna tipos variados.
-     * - Pega esse número genérico e o transforma no BigDecimal oficial 
-     * e como complemento aplica as 2 casas decimais e o arredondamento (HALF_UP) na raiz.
+     * - A consulta soma os itens em inteiros, na unidade "fração" (centésimos de centavo), de forma exata.
+     * - Aqui essa soma é arredondada para centavos uma única vez (HALF_UP), sem criar nenhum BigDecimal por linha.
+     * Ver a classe Centavos para a regra completa de arredondamento.
      */
-    public OTDPedido(Long id, String nomeCliente, LocalDateTime dataPedido, Number valorTotal) {
+    public OTDPedido(Long id, String nomeCliente, LocalDateTime dataPedido, Long valorTotalEmFracao) {
         this.id = id;
         this.nomeCliente = nomeCliente;
         this.dataPedido = dataPedido;
-        
-        // Proteção contra NullPointerException (caso o pedido não tenha itens) e formatação financeira
-        if (valorTotal != null) {
-            this.valorTotal = new BigDecimal(valorTotal.toString()).setScale(2, RoundingMode.HALF_UP);
-        } else {
-            this.valorTotal = BigDecimal.ZERO;
-        }
+
+        // Proteção contra NullPointerException (caso o pedido não tenha itens, o SUM do LEFT JOIN vem nulo)
+        this.valorTotalCentavos = (valorTotalEmFracao != null) ? Centavos.arredondar(valorTotalEmFracao) : 0L;
+    }
+
+    /**
+     * Construtor usado pelo histórico de pedidos do cliente, que lê apenas o índice de tb_pedidos
+     * (sem JOIN com tb_clientes). O nome do cliente é preenchido depois, uma única vez para a página inteira.
+     * O total já vem arredondado do banco (tb_pedidos.valor_total), convertido para centavos na consulta.
+     */
+    public OTDPedido(Long id, LocalDateTime dataPedido, Long valorTotalCentavos) {
+        this.id = id;
+        this.dataPedido = dataPedido;
+        this.valorTotalCentavos = (valorTotalCentavos != null) ? valorTotalCentavos : 0L;
     }
 
     // GETTERS E SETTERS NATIVOS
@@ -48,6 +62,9 @@ public class OTDPedido {
     public LocalDateTime getDataPedido() { return dataPedido; }
     public void setDataPedido(LocalDateTime dataPedido) { this.dataPedido = dataPedido; }
 
-    public BigDecimal getValorTotal() { return valorTotal; }
-    public void setValorTotal(BigDecimal valorTotal) { this.valorTotal = valorTotal; }
+    public long getValorTotalCentavos() { return valorTotalCentavos; }
+
+    // Borda da API: converte os centavos para reais (2 casas decimais) apenas na serialização
+    public BigDecimal getValorTotal() { return Centavos.paraReais(valorTotalCentavos); }
+    public void setValorTotal(BigDecimal valorTotal) { this.valorTotalCentavos = Centavos.deReais(valorTotal); }
 }
@@ -11,6 +11,12 @@ public class OTDPedidoRequest {
     // Lista com os produtos que compõem este pedido.
     private List<OTDProdutoRequest> itens;
 
+    /**
+     * Reserva de estoque do carrinho (opcional, ver /api/reservas).
+     * Quando informada, as quantidades reservadas não disputam com os outros carrinhos.
+     */
+    private String reservaId;
+
     // GETTERS E SETTERS
     public Long getClienteId() {
         return clienteId;
@@ -27,4 +33,12 @@ public class OTDPedidoRequest {
     public void setItens(List<OTDProdutoRequest> itens) {
         this.itens = itens;
     }
+
+    public String getReservaId() {
+        return reservaId;
+    }
+
+    public void setReservaId(String reservaId) {
+        this.reservaId = reservaId;
+    }
 }
@@ -0,0 +1,33 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import java.math.BigDecimal;
+
+/**
+ * OTD (Objeto de transferência de dados) que representa uma posição nos rankings de
+ * produtos mais vendidos e de melhores clientes.
+ * 
+ * O "nome" é a descrição do produto ou o nome do cliente, conforme o ranking consultado.
+ */
+public class OTDPosicaoRanking {
+
+    private int posicao;
+    private Long id;
+    private String nome;
+    private BigDecimal faturamento;
+    private long unidades;
+
+    public OTDPosicaoRanking(int posicao, Long id, String nome, BigDecimal faturamento, long unidades) {
+        this.posicao = posicao;
+        this.id = id;
+        this.nome = nome;
+        this.faturamento = faturamento;
+        this.unidades = unidades;
+    }
+
+    // GETTERS
+    public int getPosicao() { return posicao; }
+    public Long getId() { return id; }
+    public String getNome() { return nome; }
+    public BigDecimal getFaturamento() { return faturamento; }
+    public long getUnidades() { return unidades; }
+}
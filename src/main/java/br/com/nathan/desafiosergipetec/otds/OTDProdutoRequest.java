@@ -15,6 +15,22 @@ public class OTDProdutoRequest {
      */
     private Integer desconto;
 
+    /**
+     * Regras de quantidade e desconto do item, as mesmas na cotação, na reserva e no cadastro do pedido.
+     * Devolve a mensagem do problema encontrado, ou null quando o item é válido.
+     * (Uma quantidade negativa, por exemplo, aumentaria o estoque ao gravar o pedido.)
+     */
+    public String validar() {
+        if (quantidade == null || quantidade < 1) {
+            return "A quantidade deve ser maior que zero.";
+        }
+        int percentual = desconto != null ? desconto : 0;
+        if (percentual < 0 || percentual > 100) {
+            return "O desconto deve ser entre 0 e 100%.";
+        }
+        return null;
+    }
+
     // GETTERS E SETTERS
     public Long getProdutoId() { 
         return produtoId; 
@@ -0,0 +1,31 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import java.time.LocalDateTime;
+
+/**
+ * OTD (Objeto de transferência de dados) com o resultado de uma reserva de estoque do carrinho.
+ * 
+ * A reserva é "tudo ou nada": quando algum item não pode ser reservado, "cotacao.disponivel" vem false,
+ * os itens com problema vêm marcados e nada é reservado (numa nova reserva, "id" vem nulo).
+ * A cotação acompanha sempre a resposta, então o Frontend monta o carrinho com uma única requisição.
+ */
+public class OTDReserva {
+
+    private String id;
+
+    // Momento em que o estoque segurado volta a ficar livre, caso o pedido não seja confirmado
+    private LocalDateTime expiraEm;
+
+    private OTDCotacaoPedido cotacao;
+
+    public OTDReserva(String id, LocalDateTime expiraEm, OTDCotacaoPedido cotacao) {
+        this.id = id;
+        this.expiraEm = expiraEm;
+        this.cotacao = cotacao;
+    }
+
+    // GETTERS
+    public String getId() { return id; }
+    public LocalDateTime getExpiraEm() { return expiraEm; }
+    public OTDCotacaoPedido getCotacao() { return cotacao; }
+}
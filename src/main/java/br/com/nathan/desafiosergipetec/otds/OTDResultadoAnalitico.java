@@ -0,0 +1,32 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * OTD (Objeto de transferência de dados) que empacota a resposta do endpoint /api/analytics.
+ * 
+ * Informa também quantas linhas estavam na fotografia em memória e quando ela foi atualizada pela última vez,
+ * já que o resultado não é lido do PostgreSQL no momento da consulta.
+ */
+public class OTDResultadoAnalitico {
+
+    private String agrupamento;
+    private List<OTDGrupoAnalitico> grupos;
+    private int linhasAnalisadas;
+    private LocalDateTime atualizadoEm;
+
+    public OTDResultadoAnalitico(String agrupamento, List<OTDGrupoAnalitico> grupos, int linhasAnalisadas,
+            LocalDateTime atualizadoEm) {
+        this.agrupamento = agrupamento;
+        this.grupos = grupos;
+        this.linhasAnalisadas = linhasAnalisadas;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    // GETTERS
+    public String getAgrupamento() { return agrupamento; }
+    public List<OTDGrupoAnalitico> getGrupos() { return grupos; }
+    public int getLinhasAnalisadas() { return linhasAnalisadas; }
+    public LocalDateTime getAtualizadoEm() { return atualizadoEm; }
+}
@@ -1,5 +1,6 @@
 package br.com.nathan.desafiosergipetec.otds;
 
+import br.com.nathan.desafiosergipetec.financeiro.Centavos;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,21 +25,19 @@ public class OTDResumoPedidos {
     public OTDResumoPedidos(List<OTDPedido> pedidos) {
         this.pedidos = pedidos;
         
-        // Iniciamos com ZERO para garantir que a API nunca devolva 'null' no faturamento
-        BigDecimal soma = BigDecimal.ZERO;
+        // A soma é feita em centavos (long), sem criar um BigDecimal a cada pedido. Começa em zero para
+        // garantir que a API nunca devolva 'null' no faturamento.
+        long somaCentavos = 0;
         
         // Valida se é uma lista vazia ou nula.
         if (pedidos != null) {
             for (OTDPedido pedido : pedidos) {
-                // Valida e ignora, para o somatorio, pedidos que não tenham valor para evitar erros de cálculo.
-                if (pedido.getValorTotal() != null) {
-                    // É somado o valor total de cada pedido, garantindo que o resultado seja sempre um BigDecimal válido.
-                    soma = soma.add(pedido.getValorTotal());
-                }
+                somaCentavos += pedido.getValorTotalCentavos();
             }
         }
         
-        this.faturamentoTotal = soma;
+        // Conversão para reais apenas uma vez, no valor que vai para a resposta
+        this.faturamentoTotal = Centavos.paraReais(somaCentavos);
     }
 
     // GETTERS E SETTERS
@@ -0,0 +1,61 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Serializador manual (streaming) das linhas de OTDPedido.
+ *
+ * Em listagens com milhares de pedidos, a serialização genérica do Jackson (via reflexão e getters)
+ * é repetida para cada linha. Aqui os campos são escritos diretamente no gerador:
+ * - Os nomes dos campos são pré-codificados uma única vez (SerializedString), evitando reconverter os textos a cada linha.
+ * - O mesmo código atende JSON, CBOR e Smile, pois o gerador é escolhido pela negociação de conteúdo (cabeçalho Accept).
+ *
+ * O formato produzido é idêntico ao da serialização padrão, então o Frontend não precisa de nenhuma alteração.
+ */
+public class SerializadorOTDPedido extends StdSerializer<OTDPedido> {
+
+    private static final SerializableString CAMPO_ID = new SerializedString("id");
+    private static final SerializableString CAMPO_NOME_CLIENTE = new SerializedString("nomeCliente");
+    private static final SerializableString CAMPO_DATA_PEDIDO = new SerializedString("dataPedido");
+    private static final SerializableString CAMPO_VALOR_TOTAL = new SerializedString("valorTotal");
+
+    // Mesmo formato ISO (ex: 2026-01-31T14:30:00) usado pelo Jackson para LocalDateTime
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    public SerializadorOTDPedido() {
+        super(OTDPedido.class);
+    }
+
+    @Override
+    public void serialize(OTDPedido pedido, JsonGenerator gerador, SerializationContext contexto) {
+        gerador.writeStartObject(pedido, 4);
+
+        gerador.writeName(CAMPO_ID);
+        if (pedido.getId() != null) {
+            gerador.writeNumber(pedido.getId());
+        } else {
+            gerador.writeNull();
+        }
+
+        gerador.writeName(CAMPO_NOME_CLIENTE);
+        gerador.writeString(pedido.getNomeCliente());
+
+        gerador.writeName(CAMPO_DATA_PEDIDO);
+        if (pedido.getDataPedido() != null) {
+            gerador.writeString(FORMATO_DATA.format(pedido.getDataPedido()));
+        } else {
+            gerador.writeNull();
+        }
+
+        gerador.writeName(CAMPO_VALOR_TOTAL);
+        gerador.writeNumber(pedido.getValorTotal());
+
+        gerador.writeEndObject();
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.nathan.desafiosergipetec.ranking;
+
+/**
+ * Critério de ordenação dos rankings: faturamento (valor com descontos) ou unidades vendidas.
+ */
+public enum CriterioRanking {
+
+    FATURAMENTO(0), UNIDADES(1);
+
+    // Posição do contador correspondente no array de totais de cada produto/cliente
+    final int indice;
+
+    CriterioRanking(int indice) {
+        this.indice = indice;
+    }
+
+    /**
+     * Converte o texto recebido na URL (ex: "unidades") para o enum.
+     * Devolve null se o valor não for reconhecido, deixando o controlador responder 400.
+     */
+    public static CriterioRanking deTexto(String texto) {
+        for (CriterioRanking criterio : values()) {
+            if (criterio.name().equalsIgnoreCase(texto)) {
+                return criterio;
+            }
+        }
+        return null;
+    }
+}
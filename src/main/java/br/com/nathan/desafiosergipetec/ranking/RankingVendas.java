@@ -0,0 +1,303 @@
+package br.com.nathan.desafiosergipetec.ranking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.nathan.desafiosergipetec.entidades.Cliente;
+import br.com.nathan.desafiosergipetec.entidades.ItemPedido;
+import br.com.nathan.desafiosergipetec.entidades.Pedido;
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.financeiro.Centavos;
+import br.com.nathan.desafiosergipetec.otds.OTDPosicaoRanking;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rankings ao vivo de produtos mais vendidos e de melhores clientes (por faturamento ou por unidades).
+ *
+ * Detalhes da implementação:
+ * 1. Contadores Incrementais: Cada pedido confirmado (EventoPedidoCriado) soma os seus itens nos contadores
+ * do dia. Nenhuma consulta percorre tb_itens_pedido para montar o ranking.
+ *
+ * 2. Baldes Diários: Os contadores ficam separados por dia, permitindo escolher a janela (últimos N dias)
+ * e descartar os dias mais antigos que o período de retenção.
+ *
+ * 3. Top-K com Heap Limitado: Ao somar a janela, um heap mínimo de tamanho K guarda apenas os K maiores,
+ * sem ordenar todos os produtos/clientes. Empates são desfeitos pelo menor ID, então a ordem é sempre a mesma.
+ *
+ * 4. Cache com Atualização Periódica: O resultado de cada consulta fica guardado junto da "versão" dos contadores
+ * e do instante em que foi calculado. Ele é reaproveitado enquanto nenhuma venda nova chegar e, com vendas chegando,
+ * até completar "ranking.intervalo-atualizacao-ms". Assim cada consulta é recalculada no máximo uma vez por intervalo,
+ * qualquer que seja o ritmo das vendas, e as demais custam O(K).
+ *
+ * 5. Carga sem Contagem Dupla: Os pedidos confirmados antes de a carga inicial terminar ficam numa fila e só são
+ * somados depois dela. Na mesma fotografia do banco (REPEATABLE READ) a carga lê os IDs dos pedidos recentes,
+ * e o evento de um pedido que já estava na carga é ignorado, mesmo que chegue depois dela.
+ */
+@Service
+public class RankingVendas {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingVendas.class);
+
+    // Pedidos com data a partir de (início da carga - margem) têm o ID lido junto com a carga
+    private static final long MARGEM_CARGA_MINUTOS = 10;
+
+    private final RepositorioPedido repositorioPedido;
+    private final RepositorioProduto repositorioProduto;
+    private final RepositorioCliente repositorioCliente;
+    private final int retencaoDias;
+    private final long intervaloAtualizacaoNanos;
+    private final TransactionTemplate leituraConsistente;
+
+    // Pedidos já somados pela carga inicial (apenas os recentes, cujo evento ainda pode chegar) e eventos recebidos
+    // antes de a carga terminar. Protegidos por "this"; a fila vira null quando a carga termina.
+    private Set<Long> pedidosDaCarga = new HashSet<>();
+    private List<Pedido> pendentes = new ArrayList<>();
+
+    // Chave: dia (LocalDate.toEpochDay). Ordenado para recortar janelas e descartar dias antigos.
+    private final ConcurrentNavigableMap<Long, BaldeDiario> baldes = new ConcurrentSkipListMap<>();
+
+    // Incrementada a cada alteração dos contadores, invalidando os resultados em cache.
+    private final AtomicLong versao = new AtomicLong();
+    private final Map<ChaveConsulta, ResultadoEmCache> cache = new ConcurrentHashMap<>();
+
+    public RankingVendas(RepositorioPedido repositorioPedido,
+            RepositorioProduto repositorioProduto,
+            RepositorioCliente repositorioCliente,
+            PlatformTransactionManager gerenciadorTransacao,
+            @Value("${ranking.retencao-dias:90}") int retencaoDias,
+            @Value("${ranking.intervalo-atualizacao-ms:1000}") long intervaloAtualizacaoMs) {
+        this.repositorioPedido = repositorioPedido;
+        this.repositorioProduto = repositorioProduto;
+        this.repositorioCliente = repositorioCliente;
+        this.retencaoDias = retencaoDias;
+        this.intervaloAtualizacaoNanos = TimeUnit.MILLISECONDS.toNanos(intervaloAtualizacaoMs);
+
+        // A soma e os IDs recentes precisam vir do mesmo instante do banco
+        this.leituraConsistente = new TransactionTemplate(gerenciadorTransacao);
+        this.leituraConsistente.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.leituraConsistente.setReadOnly(true);
+    }
+
+    public int getRetencaoDias() {
+        return retencaoDias;
+    }
+
+    // Carga inicial: reconstrói os contadores do período de retenção com uma única consulta agregada.
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarHistorico() {
+        LocalDate inicio = LocalDate.now().minusDays(retencaoDias - 1L);
+        LocalDateTime inicioRecentes = LocalDateTime.now().minusMinutes(MARGEM_CARGA_MINUTOS);
+
+        Set<Long> recentes = leituraConsistente.execute(status -> {
+            for (Object[] linha : repositorioPedido.somarVendasPorDiaProdutoCliente(inicio.atStartOfDay())) {
+                balde(((Number) linha[0]).longValue()).somar(
+                        ((Number) linha[1]).longValue(),
+                        ((Number) linha[2]).longValue(),
+                        ((Number) linha[3]).longValue(),
+                        ((Number) linha[4]).longValue());
+            }
+            return new HashSet<>(repositorioPedido.buscarIdsPedidosDesde(inicioRecentes));
+        });
+
+        List<Pedido> recebidosDuranteCarga;
+        synchronized (this) {
+            pedidosDaCarga = recentes;
+            recebidosDuranteCarga = pendentes;
+            pendentes = null;
+        }
+        for (Pedido pedido : recebidosDuranteCarga) {
+            somarSeNovo(pedido);
+        }
+
+        versao.incrementAndGet();
+        log.info("Rankings carregados com {} dias de vendas ({} pedidos recebidos durante a carga)",
+                baldes.size(), recebidosDuranteCarga.size());
+    }
+
+    // Alimentado pelo ControladorPedido.salvar, somente após o commit do pedido.
+    @TransactionalEventListener
+    public void aoCriarPedido(EventoPedidoCriado evento) {
+        Pedido pedido = evento.getPedido();
+        synchronized (this) {
+            if (pendentes != null) {
+                // Carga inicial ainda em andamento: o pedido é somado (ou ignorado) quando ela terminar
+                pendentes.add(pedido);
+                return;
+            }
+        }
+        somarSeNovo(pedido);
+    }
+
+    // Soma o pedido, a menos que ele já esteja na carga inicial
+    private void somarSeNovo(Pedido pedido) {
+        synchronized (this) {
+            if (pedidosDaCarga.remove(pedido.getId())) {
+                return;
+            }
+        }
+
+        LocalDate dia = pedido.getDataPedido() != null ? pedido.getDataPedido().toLocalDate() : LocalDate.now();
+        BaldeDiario balde = balde(dia.toEpochDay());
+
+        for (ItemPedido item : pedido.getItens()) {
+            long desconto = item.getDescontoPercentual() != null ? item.getDescontoPercentual() : 0;
+            long faturamento = Centavos.totalItemEmFracao(
+                    item.getQuantidadeItens(), Centavos.deReais(item.getValor()), desconto);
+
+            balde.somar(item.getProduto().getId(), pedido.getCliente().getId(), faturamento, item.getQuantidadeItens());
+        }
+
+        versao.incrementAndGet();
+    }
+
+    // Descarta os dias que saíram do período de retenção (a cada hora).
+    @Scheduled(cron = "0 0 * * * *")
+    public void descartarDiasAntigos() {
+        long primeiroDiaMantido = LocalDate.now().minusDays(retencaoDias - 1L).toEpochDay();
+        ConcurrentNavigableMap<Long, BaldeDiario> antigos = baldes.headMap(primeiroDiaMantido);
+
+        if (!antigos.isEmpty()) {
+            antigos.clear();
+            versao.incrementAndGet();
+        }
+
+        // Os eventos dos pedidos da carga inicial já chegaram (ou nunca chegarão): os IDs podem ser esquecidos
+        synchronized (this) {
+            if (pendentes == null) {
+                pedidosDaCarga = new HashSet<>();
+            }
+        }
+
+        // Remove também os resultados de dias anteriores, que nunca mais serão consultados
+        cache.clear();
+    }
+
+    /**
+     * Devolve as K primeiras posições do ranking, considerando os últimos "dias" (incluindo hoje).
+     */
+    public List<OTDPosicaoRanking> consultar(boolean produtos, CriterioRanking criterio, int dias, int limite) {
+        ChaveConsulta chave = new ChaveConsulta(produtos, criterio, dias, limite, LocalDate.now().toEpochDay());
+        long versaoAtual = versao.get();
+        long agora = System.nanoTime();
+
+        // Sem vendas novas, ou calculado há menos de um intervalo: devolve o resultado guardado
+        ResultadoEmCache emCache = cache.get(chave);
+        if (emCache != null && (emCache.versao == versaoAtual || agora - emCache.calculadoEm < intervaloAtualizacaoNanos)) {
+            return emCache.posicoes;
+        }
+
+        List<OTDPosicaoRanking> posicoes = calcular(chave);
+        cache.put(chave, new ResultadoEmCache(versaoAtual, agora, posicoes));
+        return posicoes;
+    }
+
+    private List<OTDPosicaoRanking> calcular(ChaveConsulta chave) {
+        // Soma os baldes da janela [hoje - dias + 1, hoje]
+        Map<Long, long[]> totais = new HashMap<>();
+        for (BaldeDiario balde : baldes.subMap(chave.hoje - chave.dias + 1, true, chave.hoje, true).values()) {
+            balde.acumularEm(totais, chave.produtos);
+        }
+
+        // Heap mínimo limitado a K: o topo é sempre o menor dos K maiores, descartado quando surge alguém maior.
+        // Em caso de empate no valor, o maior ID é considerado "menor" (o menor ID fica à frente no ranking).
+        int indice = chave.criterio.indice;
+        Comparator<Map.Entry<Long, long[]>> ordem = Comparator.<Map.Entry<Long, long[]>>comparingLong(e -> e.getValue()[indice])
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<Long, long[]>> heap = new PriorityQueue<>(chave.limite + 1, ordem);
+
+        for (Map.Entry<Long, long[]> entrada : totais.entrySet()) {
+            if (heap.size() < chave.limite) {
+                heap.add(entrada);
+            } else if (ordem.compare(entrada, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entrada);
+            }
+        }
+
+        List<Map.Entry<Long, long[]>> primeiros = new ArrayList<>(heap);
+        primeiros.sort(ordem.reversed());
+
+        // Busca os nomes apenas dos K selecionados
+        List<Long> ids = primeiros.stream().map(Map.Entry::getKey).toList();
+        Map<Long, String> nomes = new HashMap<>();
+        if (chave.produtos) {
+            for (Produto produto : repositorioProduto.findAllById(ids)) nomes.put(produto.getId(), produto.getDescricao());
+        } else {
+            for (Cliente cliente : repositorioCliente.findAllById(ids)) nomes.put(cliente.getId(), cliente.getNome());
+        }
+
+        List<OTDPosicaoRanking> posicoes = new ArrayList<>(primeiros.size());
+        for (Map.Entry<Long, long[]> entrada : primeiros) {
+            long[] valores = entrada.getValue();
+            posicoes.add(new OTDPosicaoRanking(posicoes.size() + 1, entrada.getKey(), nomes.get(entrada.getKey()),
+                    Centavos.paraReais(Centavos.arredondar(valores[0])), valores[1]));
+        }
+        return List.copyOf(posicoes);
+    }
+
+    private BaldeDiario balde(long dia) {
+        return baldes.computeIfAbsent(dia, d -> new BaldeDiario());
+    }
+
+    /**
+     * Contadores de um único dia. Para cada produto e cada cliente guarda
+     * [faturamento em fração (classe Centavos), unidades vendidas].
+     */
+    private static final class BaldeDiario {
+        private final Map<Long, long[]> produtos = new HashMap<>();
+        private final Map<Long, long[]> clientes = new HashMap<>();
+
+        synchronized void somar(long produtoId, long clienteId, long faturamento, long unidades) {
+            long[] totalProduto = produtos.computeIfAbsent(produtoId, id -> new long[2]);
+            totalProduto[0] += faturamento;
+            totalProduto[1] += unidades;
+
+            long[] totalCliente = clientes.computeIfAbsent(clienteId, id -> new long[2]);
+            totalCliente[0] += faturamento;
+            totalCliente[1] += unidades;
+        }
+
+        synchronized void acumularEm(Map<Long, long[]> destino, boolean deProdutos) {
+            (deProdutos ? produtos : clientes).forEach((id, valores) -> {
+                long[] total = destino.computeIfAbsent(id, chave -> new long[2]);
+                total[0] += valores[0];
+                total[1] += valores[1];
+            });
+        }
+    }
+
+    // O dia atual faz parte da chave, para que a janela "deslize" na virada do dia.
+    private record ChaveConsulta(boolean produtos, CriterioRanking criterio, int dias, int limite, long hoje) {
+    }
+
+    private record ResultadoEmCache(long versao, long calculadoEm, List<OTDPosicaoRanking> posicoes) {
+    }
+}
@@ -0,0 +1,321 @@
+package br.com.nathan.desafiosergipetec.relatorios;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import tools.jackson.databind.ObjectMapper;
+
+import br.com.nathan.desafiosergipetec.consultas.FiltroBuscaPedidos;
+import br.com.nathan.desafiosergipetec.consultas.ServicoBuscaPedidos;
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.otds.OTDResumoPedidos;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Relatórios mensais de pedidos pré-calculados (meses já encerrados).
+ *
+ * O financeiro consulta o fechamento do mês repetidas vezes, e cada consulta refazia o OTDResumoPedidos
+ * de dezenas de milhares de pedidos. Como um mês encerrado praticamente não muda, o resultado é calculado
+ * uma única vez e guardado em disco.
+ *
+ * Detalhes da implementação:
+ * 1. Mesmo Conteúdo da Busca: O relatório é exatamente a resposta de /api/pedidos/buscar com o mês inteiro
+ * no filtro de datas (pedidos ativos e arquivados, via ServicoBuscaPedidos), já serializado em JSON e compactado (gzip).
+ *
+ * 2. Leitura Mapeada em Memória: O arquivo é mapeado (FileChannel.map) e enviado direto do mapeamento,
+ * já compactado, sem carregar o relatório no heap nem serializar nada por requisição.
+ *
+ * 3. Recalcular Apenas se Mudar: Cada relatório guarda a "impressão digital" do período (quantidade de pedidos
+ * e maior ID, no nome do arquivo). Uma verificação periódica e cada pedido confirmado com data num mês encerrado
+ * comparam essa impressão com o banco; só se ela mudou (pedido atrasado) o relatório é refeito.
+ *
+ * 4. Geração em Segundo Plano: Um relatório que ainda não existe é calculado no executor de tarefas da aplicação,
+ * nunca na thread da requisição (que recebe 503 + Retry-After enquanto isso). Cada mês tem a sua própria trava:
+ * gerar um mês não bloqueia a leitura nem a geração dos demais, e duas gerações do mesmo mês nunca correm juntas.
+ */
+@Service
+public class ServicoRelatoriosMensais {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoRelatoriosMensais.class);
+
+    // Nome dos arquivos: pedidos-2026-09.1520-48213.json.gz (mês, quantidade de pedidos e maior ID)
+    private static final String PREFIXO = "pedidos-";
+    private static final String EXTENSAO = ".json.gz";
+
+    private final ServicoBuscaPedidos servicoBusca;
+    private final RepositorioPedido repositorioPedido;
+    private final ObjectMapper objectMapper;
+    private final Path diretorio;
+    private final int mesesRetroativos;
+    private final Executor executor;
+
+    // Relatórios já mapeados, por mês. Alterado apenas sob a trava do mês.
+    private final Map<YearMonth, Relatorio> relatorios = new ConcurrentHashMap<>();
+
+    // Uma trava por mês: protege a leitura do disco e a geração daquele mês
+    private final Map<YearMonth, ReentrantLock> travas = new ConcurrentHashMap<>();
+
+    // Meses com geração disparada por uma consulta e ainda não concluída
+    private final Set<YearMonth> emGeracao = ConcurrentHashMap.newKeySet();
+
+    public ServicoRelatoriosMensais(ServicoBuscaPedidos servicoBusca,
+            RepositorioPedido repositorioPedido,
+            ObjectMapper objectMapper,
+            @Qualifier("applicationTaskExecutor") Executor executor,
+            @Value("${relatorios.diretorio:relatorios-mensais}") String diretorio,
+            @Value("${relatorios.meses-retroativos:12}") int mesesRetroativos) {
+        this.servicoBusca = servicoBusca;
+        this.repositorioPedido = repositorioPedido;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.diretorio = Paths.get(diretorio);
+        this.mesesRetroativos = mesesRetroativos;
+    }
+
+    // Só meses anteriores ao atual têm relatório pré-calculado
+    public static boolean encerrado(YearMonth mes) {
+        return mes.isBefore(YearMonth.now());
+    }
+
+    /**
+     * Devolve o relatório do mês encerrado. Na primeira consulta após a inicialização reaproveita o arquivo
+     * já gravado. Se ele não existir (ou o mês estiver sendo gerado agora), dispara a geração em segundo plano
+     * e devolve vazio: a requisição não espera pelo cálculo.
+     */
+    public Optional<Relatorio> obter(YearMonth mes) {
+        Relatorio relatorio = relatorios.get(mes);
+        if (relatorio != null) {
+            return Optional.of(relatorio);
+        }
+
+        // Sem esperar: se o mês estiver travado, uma geração já está em andamento
+        ReentrantLock trava = travaDoMes(mes);
+        if (trava.tryLock()) {
+            try {
+                relatorio = relatorios.get(mes);
+                if (relatorio == null) {
+                    relatorio = carregarDoDisco(mes);
+                    if (relatorio != null) {
+                        relatorios.put(mes, relatorio);
+                    }
+                }
+            } finally {
+                trava.unlock();
+            }
+            if (relatorio != null) {
+                return Optional.of(relatorio);
+            }
+        }
+
+        iniciarGeracao(mes);
+        return Optional.empty();
+    }
+
+    /**
+     * Confere periodicamente os últimos meses encerrados: gera os que faltam (ex: logo após a virada do mês)
+     * e refaz os que receberam pedidos atrasados.
+     */
+    @Scheduled(initialDelayString = "${relatorios.atraso-inicial-ms:60000}",
+            fixedDelayString = "${relatorios.intervalo-verificacao-ms:3600000}")
+    public void atualizarMesesEncerrados() {
+        YearMonth atual = YearMonth.now();
+        for (int i = 1; i <= mesesRetroativos; i++) {
+            verificar(atual.minusMonths(i));
+        }
+    }
+
+    // Pedido confirmado com data num mês já encerrado (ex: gravado na virada do mês): confere aquele mês.
+    @Async
+    @TransactionalEventListener
+    public void aoCriarPedido(EventoPedidoCriado evento) {
+        LocalDateTime dataPedido = evento.getPedido().getDataPedido();
+        if (dataPedido != null && encerrado(YearMonth.from(dataPedido))) {
+            verificar(YearMonth.from(dataPedido));
+        }
+    }
+
+    // Dispara a geração do mês no executor, no máximo uma por mês ao mesmo tempo
+    private void iniciarGeracao(YearMonth mes) {
+        if (!emGeracao.add(mes)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    carregarOuGerar(mes);
+                } catch (RuntimeException e) {
+                    // A próxima consulta dispara uma nova tentativa
+                    log.error("Falha ao gerar o relatório de {}", mes, e);
+                } finally {
+                    emGeracao.remove(mes);
+                }
+            });
+        } catch (RuntimeException e) {
+            emGeracao.remove(mes);
+            throw e;
+        }
+    }
+
+    private void carregarOuGerar(YearMonth mes) {
+        ReentrantLock trava = travaDoMes(mes);
+        trava.lock();
+        try {
+            Relatorio relatorio = relatorios.get(mes);
+            if (relatorio == null) {
+                relatorio = carregarDoDisco(mes);
+            }
+            if (relatorio == null) {
+                relatorio = gerar(mes, impressaoAtual(mes));
+            }
+            relatorios.put(mes, relatorio);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void verificar(YearMonth mes) {
+        ReentrantLock trava = travaDoMes(mes);
+        trava.lock();
+        try {
+            Impressao atual = impressaoAtual(mes);
+
+            Relatorio relatorio = relatorios.get(mes);
+            if (relatorio == null) {
+                relatorio = carregarDoDisco(mes);
+            }
+            if (relatorio == null || !relatorio.impressao().equals(atual)) {
+                relatorio = gerar(mes, atual);
+            }
+            relatorios.put(mes, relatorio);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private ReentrantLock travaDoMes(YearMonth mes) {
+        return travas.computeIfAbsent(mes, m -> new ReentrantLock());
+    }
+
+    /**
+     * Calcula o relatório, grava num arquivo temporário e o renomeia (operação atômica), para que nunca
+     * seja lido um arquivo pela metade. A impressão é tirada ANTES da busca: se um pedido chegar durante
+     * o cálculo, a próxima verificação percebe a diferença e refaz o relatório.
+     */
+    private Relatorio gerar(YearMonth mes, Impressao impressao) {
+        long inicio = System.nanoTime();
+        OTDResumoPedidos resumo = servicoBusca.buscarAtivosEArquivados(filtroDoMes(mes));
+
+        try {
+            Files.createDirectories(diretorio);
+            Path destino = diretorio.resolve(PREFIXO + mes + "." + impressao.quantidade() + "-" + impressao.maiorId() + EXTENSAO);
+            Path temporario = Files.createTempFile(diretorio, PREFIXO + mes, ".tmp");
+
+            try (OutputStream saida = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                objectMapper.writeValue(saida, resumo);
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            removerVersoesAntigas(mes, destino);
+
+            log.info("Relatório de {} gerado: {} pedidos em {} ms", mes, impressao.quantidade(),
+                    (System.nanoTime() - inicio) / 1_000_000);
+            return mapear(mes, impressao, destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o relatório de " + mes, e);
+        }
+    }
+
+    // Procura um relatório gravado numa execução anterior (a impressão vem do nome do arquivo)
+    private Relatorio carregarDoDisco(YearMonth mes) {
+        if (!Files.isDirectory(diretorio)) {
+            return null;
+        }
+
+        String inicioNome = PREFIXO + mes + ".";
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, inicioNome + "*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                String[] partes = nome.substring(inicioNome.length(), nome.length() - EXTENSAO.length()).split("-");
+                try {
+                    Impressao impressao = new Impressao(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+                    return mapear(mes, impressao, arquivo);
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    log.warn("Arquivo de relatório ignorado (nome inesperado): {}", arquivo);
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler os relatórios de " + mes, e);
+        }
+    }
+
+    // O mapeamento continua válido depois que o canal é fechado
+    private static Relatorio mapear(YearMonth mes, Impressao impressao, Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new Relatorio(mes, impressao, arquivo, conteudo);
+        }
+    }
+
+    // Apaga as versões anteriores do mesmo mês (requisições em andamento continuam lendo o mapeamento antigo)
+    private void removerVersoesAntigas(YearMonth mes, Path atual) throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + mes + ".*" + EXTENSAO)) {
+            for (Path arquivo : arquivos) {
+                if (!arquivo.equals(atual)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+    }
+
+    private Impressao impressaoAtual(YearMonth mes) {
+        FiltroBuscaPedidos filtro = filtroDoMes(mes);
+        Object[] linha = repositorioPedido.resumirPeriodo(filtro.dataInicio(), filtro.dataFim()).get(0);
+        return new Impressao(((Number) linha[0]).longValue(), ((Number) linha[1]).longValue());
+    }
+
+    // Mesmo intervalo que a busca de pedidos usa para dataInicio/dataFim (do início do primeiro dia até 23:59:59 do último)
+    private static FiltroBuscaPedidos filtroDoMes(YearMonth mes) {
+        return new FiltroBuscaPedidos(null, null, null, null, null,
+                mes.atDay(1).atStartOfDay(), mes.atEndOfMonth().atTime(23, 59, 59));
+    }
+
+    // Quantidade de pedidos e maior ID do período
+    public record Impressao(long quantidade, long maiorId) {
+    }
+
+    /**
+     * Relatório pronto: JSON do OTDResumoPedidos compactado com gzip, mapeado em memória.
+     * Cada leitor deve usar conteudo().duplicate(), para ter a sua própria posição de leitura.
+     */
+    public record Relatorio(YearMonth mes, Impressao impressao, Path arquivo, MappedByteBuffer conteudo) {
+    }
+}
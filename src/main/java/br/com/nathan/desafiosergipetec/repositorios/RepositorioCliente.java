@@ -24,22 +24,26 @@ public interface RepositorioCliente extends JpaRepository<Cliente, Long> {
     List<Cliente> listarTodosClientes();
 
     /**
-     * Consultar cliente por identificador (ID)
+     * Primeiros clientes cadastrados (ordem de ID), em quantidade limitada.
+     * Usado pelo aquecimento, que precisa apenas de alguns IDs e nomes reais.
      */
-    @Query(value = "SELECT * FROM tb_clientes WHERE id = :id", nativeQuery = true)
-    Optional<Cliente> buscarPorId(@Param("id") Long id);
+    @Query(value = "SELECT * FROM tb_clientes ORDER BY id ASC LIMIT :limite", nativeQuery = true)
+    List<Cliente> listarAmostra(@Param("limite") int limite);
 
     /**
-     * Consultar cliente por Nome 
+     * Consultar cliente por identificador (ID)
      */
-    @Query(value = "SELECT * FROM tb_clientes WHERE nome ILIKE CONCAT('%', :nome, '%')", nativeQuery = true)
-    List<Cliente> buscarPorNome(@Param("nome") String nome);
+    @Query(value = "SELECT * FROM tb_clientes WHERE id = :id", nativeQuery = true)
+    Optional<Cliente> buscarPorId(@Param("id") Long id);
 
     /**
-     * Consultar clientes por nome ou identificador
-     * O CAST transforma o ID num texto para comparar com o que o usuário digitou.
-     * O ILIKE e o CONCAT buscam a palavra em qualquer parte do nome (ignorando maiúsculas).
+     * Consultar clientes por Nome
+     * - O ILIKE sobre f_unaccent(nome) ignora maiúsculas e acentos e é atendido pelo índice GIN de trigramas
+     * (idx_clientes_nome_trgm), mesmo com o '%' no início do termo.
+     * - Os resultados mais parecidos com o termo (similarity) aparecem primeiro.
+     * - O LIMIT evita devolver milhares de linhas quando o termo é muito genérico.
      */
-    @Query(value = "SELECT * FROM tb_clientes WHERE CAST(id AS TEXT) = :identificador OR nome ILIKE CONCAT('%', :identificador, '%')", nativeQuery = true)
-    List<Cliente> buscarPorNomeOuId(@Param("identificador") String identificador);
+    @Query(value = "SELECT * FROM tb_clientes WHERE f_unaccent(nome) ILIKE CONCAT('%', f_unaccent(:nome), '%') " +
+            "ORDER BY similarity(f_unaccent(nome), f_unaccent(:nome)) DESC, id ASC LIMIT :limite", nativeQuery = true)
+    List<Cliente> buscarPorNome(@Param("nome") String nome, @Param("limite") int limite);
 }
\ No newline at end of file
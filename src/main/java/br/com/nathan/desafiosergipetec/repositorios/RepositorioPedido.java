@@ -1,5 +1,6 @@
 package br.com.nathan.desafiosergipetec.repositorios;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,6 +10,7 @@ import br.com.nathan.desafiosergipetec.entidades.Pedido;
 import br.com.nathan.desafiosergipetec.otds.OTDPedido;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,7 +26,8 @@ public interface RepositorioPedido extends JpaRepository<Pedido, Long> {
      * Isso poupa memória e evita o clássico problema de N+1 consultas do Hibernate.
      * 
      * 2. Processamento no Banco (SUM): O cálculo do valor total com descontos é feito no próprio PostgreSQL,
-     * o que é muito mais rápido e eficiente do que calcular no Java.
+     * o que é muito mais rápido e eficiente do que calcular no Java. A soma usa apenas inteiros (valor em centavos),
+     * na unidade "fração" da classe Centavos, e é arredondada uma única vez no construtor do OTDPedido.
      * 
      * 3. Prevenção de Nulos (COALESCE): Impede que o cálculo quebre caso um item não tenha desconto, 
      * tratando o valor vazio automaticamente como 0%.
@@ -33,7 +36,8 @@ public interface RepositorioPedido extends JpaRepository<Pedido, Long> {
      * ignorando de forma inteligente os filtros que o usuário deixar em branco.
      */
     @Query("SELECT new br.com.nathan.desafiosergipetec.otds.OTDPedido(" +
-            "p.id, p.cliente.nome, p.dataPedido, SUM(item.quantidadeItens * item.valor * (100 - COALESCE(item.descontoPercentual, 0)) / 100.0)) "
+            "p.id, p.cliente.nome, p.dataPedido, " +
+            "SUM(item.quantidadeItens * CAST(item.valor * 100 AS Long) * (100 - COALESCE(item.descontoPercentual, 0)))) "
             +
             "FROM Pedido p LEFT JOIN p.itens item " +
             "WHERE (:id IS NULL OR p.id = :id) " +
@@ -54,4 +58,111 @@ public interface RepositorioPedido extends JpaRepository<Pedido, Long> {
             @Param("descricaoProduto") String descricaoProduto,
             @Param("dataInicio") LocalDateTime dataInicio,
             @Param("dataFim") LocalDateTime dataFim);
+
+    /*
+     * Histórico de pedidos de um cliente (primeira página, pedidos mais recentes primeiro).
+     * 
+     * Usa apenas colunas presentes no índice idx_pedidos_cliente_data (cliente_id, data_pedido, id + valor_total),
+     * permitindo ao PostgreSQL um Index Only Scan já ordenado, que para após "limite" linhas.
+     */
+    @Query("SELECT new br.com.nathan.desafiosergipetec.otds.OTDPedido(p.id, p.dataPedido, CAST(p.valorTotal * 100 AS Long)) " +
+            "FROM Pedido p WHERE p.cliente.id = :clienteId " +
+            "ORDER BY p.dataPedido DESC, p.id DESC")
+    List<OTDPedido> buscarHistoricoCliente(@Param("clienteId") Long clienteId, Limit limite);
+
+    /*
+     * Próximas páginas do histórico (paginação por chave / keyset).
+     * Em vez de OFFSET (que precisa ler e descartar todas as linhas anteriores), continua exatamente
+     * após o último pedido da página anterior, comparando o par (data_pedido, id).
+     */
+    @Query("SELECT new br.com.nathan.desafiosergipetec.otds.OTDPedido(p.id, p.dataPedido, CAST(p.valorTotal * 100 AS Long)) " +
+            "FROM Pedido p WHERE p.cliente.id = :clienteId " +
+            "AND (p.dataPedido, p.id) < (:dataPedido, :pedidoId) " +
+            "ORDER BY p.dataPedido DESC, p.id DESC")
+    List<OTDPedido> buscarHistoricoClienteApos(@Param("clienteId") Long clienteId,
+            @Param("dataPedido") LocalDateTime dataPedido,
+            @Param("pedidoId") Long pedidoId,
+            Limit limite);
+
+    /*
+     * Carga incremental do motor analítico (MotorAnalitico).
+     * Devolve as linhas de itens com ID maior que o último já carregado, em lotes ordenados pelo ID do item.
+     * 
+     * Colunas (nesta ordem): id do item, id do pedido, id do produto, id do cliente,
+     * dia do pedido (dias desde 1970-01-01), quantidade, valor unitário em centavos, desconto percentual
+     * e se a linha é o primeiro item do pedido (usado para contar pedidos sem precisar de DISTINCT).
+     */
+    @Query(value = "SELECT i.id, i.pedido_id, i.produto_id, p.cliente_id, " +
+            "CAST(p.data_pedido AS DATE) - DATE '1970-01-01', " +
+            "i.quantidade_itens, CAST(i.valor * 100 AS BIGINT), COALESCE(i.desconto_percentual, 0), " +
+            "NOT EXISTS (SELECT 1 FROM tb_itens_pedido anterior WHERE anterior.pedido_id = i.pedido_id AND anterior.id < i.id) " +
+            "FROM tb_itens_pedido i JOIN tb_pedidos p ON p.id = i.pedido_id " +
+            "WHERE i.id > :ultimoId ORDER BY i.id LIMIT :limite", nativeQuery = true)
+    List<Object[]> buscarLinhasItensAposId(@Param("ultimoId") long ultimoId, @Param("limite") int limite);
+
+    /*
+     * Mesmas colunas do buscarLinhasItensAposId, para IDs específicos: as lacunas que o motor analítico revisita
+     * (itens de transações que terminaram depois de um ID maior já ter sido carregado).
+     */
+    @Query(value = "SELECT i.id, i.pedido_id, i.produto_id, p.cliente_id, " +
+            "CAST(p.data_pedido AS DATE) - DATE '1970-01-01', " +
+            "i.quantidade_itens, CAST(i.valor * 100 AS BIGINT), COALESCE(i.desconto_percentual, 0), " +
+            "NOT EXISTS (SELECT 1 FROM tb_itens_pedido anterior WHERE anterior.pedido_id = i.pedido_id AND anterior.id < i.id) " +
+            "FROM tb_itens_pedido i JOIN tb_pedidos p ON p.id = i.pedido_id " +
+            "WHERE i.id IN (:ids) ORDER BY i.id", nativeQuery = true)
+    List<Object[]> buscarLinhasItensPorIds(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Conferência do motor analítico: itens ativos até o último ID carregado mais os itens dos pedidos arquivados.
+     * As duas contagens saem do mesmo instante do banco, então um arquivamento em andamento não altera a soma.
+     */
+    @Query(value = "SELECT CAST((SELECT COUNT(*) FROM tb_itens_pedido WHERE id <= :ultimoId) + " +
+            "(SELECT COALESCE(SUM(jsonb_array_length(itens)), 0) FROM arquivo.tb_pedidos_arquivados) AS BIGINT)",
+            nativeQuery = true)
+    long contarItensAteId(@Param("ultimoId") long ultimoId);
+
+    /*
+     * Carga inicial dos rankings (RankingVendas) com as vendas do período de retenção.
+     * Já devolve os valores somados por dia, produto e cliente, para que a aplicação não precise ler item a item.
+     * 
+     * Colunas (nesta ordem): dia do pedido (dias desde 1970-01-01), id do produto, id do cliente,
+     * faturamento em centésimos de centavo (quantidade * centavos * (100 - desconto)) e unidades vendidas.
+     */
+    @Query(value = "SELECT CAST(p.data_pedido AS DATE) - DATE '1970-01-01', i.produto_id, p.cliente_id, " +
+            "SUM(i.quantidade_itens * CAST(i.valor * 100 AS BIGINT) * (100 - COALESCE(i.desconto_percentual, 0))), " +
+            "SUM(i.quantidade_itens) " +
+            "FROM tb_itens_pedido i JOIN tb_pedidos p ON p.id = i.pedido_id " +
+            "WHERE p.data_pedido >= :inicio " +
+            "GROUP BY 1, 2, 3", nativeQuery = true)
+    List<Object[]> somarVendasPorDiaProdutoCliente(@Param("inicio") LocalDateTime inicio);
+
+    /*
+     * IDs dos pedidos recentes, lidos junto com a carga inicial dos rankings: indicam quais pedidos já estão
+     * somados na carga, para que o evento desses pedidos (que pode chegar depois) não seja somado de novo.
+     * Atendida pelo índice idx_pedidos_data.
+     */
+    @Query(value = "SELECT id FROM tb_pedidos WHERE data_pedido >= :inicio", nativeQuery = true)
+    List<Long> buscarIdsPedidosDesde(@Param("inicio") LocalDateTime inicio);
+
+    /*
+     * ID do pedido mais recente (lido direto da chave primária), usado pelo aquecimento para montar buscas
+     * que sempre terminam num único pedido. Nulo quando não há pedidos.
+     */
+    @Query(value = "SELECT MAX(id) FROM tb_pedidos", nativeQuery = true)
+    Long buscarIdMaisRecente();
+
+    /*
+     * "Impressão digital" de um período, usada pelos relatórios mensais pré-calculados para detectar pedidos
+     * que chegaram depois de o relatório ser gerado. Considera os pedidos ativos e os arquivados, então
+     * o arquivamento (que apenas move os pedidos) não altera o resultado.
+     * Atendida pelos índices de data_pedido das duas tabelas.
+     * 
+     * Colunas (nesta ordem): quantidade de pedidos e maior ID do período (0 quando vazio).
+     */
+    @Query(value = "SELECT COUNT(*), COALESCE(MAX(pedidos.id), 0) FROM (" +
+            "SELECT id FROM tb_pedidos WHERE data_pedido >= :inicio AND data_pedido <= :fim " +
+            "UNION ALL " +
+            "SELECT id FROM arquivo.tb_pedidos_arquivados WHERE data_pedido >= :inicio AND data_pedido <= :fim) pedidos",
+            nativeQuery = true)
+    List<Object[]> resumirPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package br.com.nathan.desafiosergipetec.repositorios;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import br.com.nathan.desafiosergipetec.entidades.PedidoArquivado;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositório responsável pelo arquivo frio de pedidos (schema 'arquivo').
+ * Concentra a movimentação dos pedidos antigos e as consultas sobre eles.
+ */
+@Repository
+public interface RepositorioPedidoArquivado extends JpaRepository<PedidoArquivado, Long> {
+
+    /*
+     * Copia para o arquivo um lote de pedidos anteriores à data de corte.
+     * - Os itens são agregados num único JSONB por pedido (com a descrição do produto, para as buscas).
+     * - O valor total é recalculado a partir dos itens com a mesma regra do buscarComFiltros,
+     * garantindo que o total exibido antes e depois do arquivamento seja idêntico.
+     * Devolve a quantidade de pedidos copiados (zero indica que não há mais nada a arquivar).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO arquivo.tb_pedidos_arquivados (id, cliente_id, nome_cliente, data_pedido, valor_total, itens) " +
+            "SELECT p.id, p.cliente_id, c.nome, p.data_pedido, " +
+            "COALESCE((SELECT ROUND(SUM(i.quantidade_itens * i.valor * (100 - COALESCE(i.desconto_percentual, 0)) / 100.0), 2) " +
+            "FROM tb_itens_pedido i WHERE i.pedido_id = p.id), 0), " +
+            "COALESCE((SELECT jsonb_agg(jsonb_build_object('produto_id', i.produto_id, 'descricao', pr.descricao, " +
+            "'valor', i.valor, 'quantidade_itens', i.quantidade_itens, " +
+            "'desconto_percentual', COALESCE(i.desconto_percentual, 0)) ORDER BY i.id) " +
+            "FROM tb_itens_pedido i JOIN tb_produtos pr ON pr.id = i.produto_id WHERE i.pedido_id = p.id), CAST('[]' AS JSONB)) " +
+            "FROM tb_pedidos p JOIN tb_clientes c ON c.id = p.cliente_id " +
+            "WHERE p.data_pedido < :corte ORDER BY p.data_pedido LIMIT :limite " +
+            "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copiarPedidosAnterioresA(@Param("corte") LocalDateTime corte, @Param("limite") int limite);
+
+    /*
+     * Remove de tb_pedidos os pedidos que já estão no arquivo (os itens saem junto, via ON DELETE CASCADE).
+     */
+    @Modifying
+    @Query(value = "DELETE FROM tb_pedidos p WHERE p.data_pedido < :corte " +
+            "AND EXISTS (SELECT 1 FROM arquivo.tb_pedidos_arquivados a WHERE a.id = p.id)", nativeQuery = true)
+    int removerPedidosArquivados(@Param("corte") LocalDateTime corte);
+
+    /*
+     * Data do pedido mais recente do arquivo. Buscas cujo período começa depois dela não precisam consultar o arquivo.
+     */
+    @Query(value = "SELECT MAX(data_pedido) FROM arquivo.tb_pedidos_arquivados", nativeQuery = true)
+    LocalDateTime buscarDataMaisRecente();
+
+    /*
+     * Carga do motor analítico (MotorAnalitico): os itens dos pedidos arquivados, no mesmo formato de colunas
+     * do buscarLinhasItensAposId do RepositorioPedido (o id do item, que o arquivo não guarda, vem nulo).
+     * Pagina por pedido (até "limite" pedidos por chamada); cada pedido devolve uma linha por item do JSONB.
+     * Pedidos sem itens devolvem uma única linha com o produto nulo, apenas para a paginação avançar.
+     */
+    @Query(value = "SELECT CAST(NULL AS BIGINT), a.id, CAST(item ->> 'produto_id' AS BIGINT), a.cliente_id, " +
+            "CAST(a.data_pedido AS DATE) - DATE '1970-01-01', " +
+            "CAST(item ->> 'quantidade_itens' AS INTEGER), CAST(CAST(item ->> 'valor' AS NUMERIC) * 100 AS BIGINT), " +
+            "CAST(item ->> 'desconto_percentual' AS INTEGER), posicao = 1 " +
+            "FROM (SELECT id, cliente_id, data_pedido, itens FROM arquivo.tb_pedidos_arquivados " +
+            "WHERE id > :ultimoPedidoId ORDER BY id LIMIT :limite) a " +
+            "LEFT JOIN LATERAL jsonb_array_elements(a.itens) WITH ORDINALITY AS elementos(item, posicao) ON TRUE " +
+            "ORDER BY a.id, posicao", nativeQuery = true)
+    List<Object[]> buscarLinhasItensAposPedido(@Param("ultimoPedidoId") long ultimoPedidoId, @Param("limite") int limite);
+
+    /*
+     * Mesmos filtros dinâmicos do buscarComFiltros do RepositorioPedido, aplicados ao arquivo.
+     * Os filtros de produto usam o JSONB dos itens (o de ID é atendido pelo índice GIN jsonb_path_ops).
+     * Os filtros de texto ignoram maiúsculas (ILIKE), como o LOWER(...) LIKE dos pedidos ativos.
+     * 
+     * O total segue a mesma regra da busca de pedidos ativos: com filtro de produto, soma apenas os itens que atendem
+     * ao filtro; sem ele, usa o total gravado (que é a soma de todos os itens). Nos dois casos o valor sai na unidade
+     * "fração" da classe Centavos, para ser arredondado uma única vez como nos pedidos ativos.
+     * 
+     * Colunas (nesta ordem): id, nome do cliente, data do pedido e valor total em fração de centavo.
+     */
+    @Query(value = "SELECT a.id, a.nome_cliente, a.data_pedido, " +
+            "CASE WHEN CAST(:produtoId AS BIGINT) IS NULL AND CAST(:descricaoProduto AS TEXT) IS NULL " +
+            "THEN CAST(a.valor_total * 10000 AS BIGINT) " +
+            "ELSE (SELECT SUM(CAST(item ->> 'quantidade_itens' AS BIGINT) * CAST(CAST(item ->> 'valor' AS NUMERIC) * 100 AS BIGINT) " +
+            "* (100 - CAST(item ->> 'desconto_percentual' AS INTEGER))) " +
+            "FROM jsonb_array_elements(a.itens) item " +
+            "WHERE (CAST(:produtoId AS BIGINT) IS NULL OR CAST(item ->> 'produto_id' AS BIGINT) = :produtoId) " +
+            "AND (CAST(:descricaoProduto AS TEXT) IS NULL OR item ->> 'descricao' ILIKE CONCAT('%', CAST(:descricaoProduto AS TEXT), '%'))) " +
+            "END " +
+            "FROM arquivo.tb_pedidos_arquivados a " +
+            "WHERE (CAST(:id AS BIGINT) IS NULL OR a.id = :id) " +
+            "AND (CAST(:clienteId AS BIGINT) IS NULL OR a.cliente_id = :clienteId) " +
+            "AND (CAST(:nomeCliente AS TEXT) IS NULL OR a.nome_cliente ILIKE CONCAT('%', CAST(:nomeCliente AS TEXT), '%')) " +
+            "AND (CAST(:produtoId AS BIGINT) IS NULL OR a.itens @> jsonb_build_array(jsonb_build_object('produto_id', CAST(:produtoId AS BIGINT)))) " +
+            "AND (CAST(:descricaoProduto AS TEXT) IS NULL OR EXISTS (SELECT 1 FROM jsonb_array_elements(a.itens) item " +
+            "WHERE item ->> 'descricao' ILIKE CONCAT('%', CAST(:descricaoProduto AS TEXT), '%'))) " +
+            "AND (CAST(:dataInicio AS TIMESTAMP) IS NULL OR a.data_pedido >= :dataInicio) " +
+            "AND (CAST(:dataFim AS TIMESTAMP) IS NULL OR a.data_pedido <= :dataFim)", nativeQuery = true)
+    List<Object[]> buscarComFiltros(
+            @Param("id") Long id,
+            @Param("clienteId") Long clienteId,
+            @Param("nomeCliente") String nomeCliente,
+            @Param("produtoId") Long produtoId,
+            @Param("descricaoProduto") String descricaoProduto,
+            @Param("dataInicio") LocalDateTime dataInicio,
+            @Param("dataFim") LocalDateTime dataFim);
+
+    /*
+     * Itens de um pedido arquivado, na ordem original, para montar o pedido completo (GET /api/pedidos/{id}).
+     * 
+     * Colunas (nesta ordem): id do produto, descrição do produto na data do arquivamento, valor unitário,
+     * quantidade e desconto percentual.
+     */
+    @Query(value = "SELECT CAST(item ->> 'produto_id' AS BIGINT), item ->> 'descricao', CAST(item ->> 'valor' AS NUMERIC), " +
+            "CAST(item ->> 'quantidade_itens' AS INTEGER), CAST(item ->> 'desconto_percentual' AS INTEGER) " +
+            "FROM arquivo.tb_pedidos_arquivados a " +
+            "CROSS JOIN LATERAL jsonb_array_elements(a.itens) WITH ORDINALITY AS elementos(item, posicao) " +
+            "WHERE a.id = :id ORDER BY posicao", nativeQuery = true)
+    List<Object[]> buscarItensDoPedido(@Param("id") Long id);
+
+    /*
+     * Histórico de pedidos arquivados de um cliente (mesma ordem e paginação por chave do histórico de pedidos ativos).
+     * Atendido pelo índice idx_pedidos_arquivados_cliente_data (cliente_id, data_pedido, id + valor_total).
+     * 
+     * Colunas (nesta ordem): id, data do pedido e valor total em centavos.
+     */
+    @Query(value = "SELECT a.id, a.data_pedido, CAST(a.valor_total * 100 AS BIGINT) FROM arquivo.tb_pedidos_arquivados a " +
+            "WHERE a.cliente_id = :clienteId " +
+            "ORDER BY a.data_pedido DESC, a.id DESC LIMIT :limite", nativeQuery = true)
+    List<Object[]> buscarHistoricoCliente(@Param("clienteId") Long clienteId, @Param("limite") int limite);
+
+    // Próximas páginas do histórico de pedidos arquivados (após o par data_pedido, id da página anterior)
+    @Query(value = "SELECT a.id, a.data_pedido, CAST(a.valor_total * 100 AS BIGINT) FROM arquivo.tb_pedidos_arquivados a " +
+            "WHERE a.cliente_id = :clienteId " +
+            "AND (a.data_pedido, a.id) < (CAST(:dataPedido AS TIMESTAMP), CAST(:pedidoId AS BIGINT)) " +
+            "ORDER BY a.data_pedido DESC, a.id DESC LIMIT :limite", nativeQuery = true)
+    List<Object[]> buscarHistoricoClienteApos(@Param("clienteId") Long clienteId,
+            @Param("dataPedido") LocalDateTime dataPedido,
+            @Param("pedidoId") Long pedidoId,
+            @Param("limite") int limite);
+}
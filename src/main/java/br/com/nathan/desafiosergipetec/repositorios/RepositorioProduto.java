@@ -6,9 +6,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.otds.OTDProdutoRequest;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repositório responsável pelas operações de persistência e consultas da entidade Produto.
@@ -23,6 +29,13 @@ public interface RepositorioProduto extends JpaRepository<Produto, Long> {
     @Query(value = "SELECT * FROM tb_produtos ORDER BY id ASC", nativeQuery = true)
     List<Produto> listarTodosProdutos();
 
+    /**
+     * Primeiros produtos do catálogo (ordem de ID), em quantidade limitada.
+     * Usado pelo aquecimento, que precisa apenas de alguns IDs e descrições reais.
+     */
+    @Query(value = "SELECT * FROM tb_produtos ORDER BY id ASC LIMIT :limite", nativeQuery = true)
+    List<Produto> listarAmostra(@Param("limite") int limite);
+
     /**
      * Consultar produto por identificador (ID)
      */
@@ -30,18 +43,66 @@ public interface RepositorioProduto extends JpaRepository<Produto, Long> {
     Optional<Produto> buscarPorId(@Param("id") Long id);
 
     /**
-     * Consultar produto por descricao
+     * Consultar vários produtos de uma só vez (lote)
+     * - Uma única consulta atendida pelo índice da PK, em vez de uma consulta por produto.
+     * - IDs inexistentes são simplesmente ignorados; quem chama deve conferir o que faltou.
+     * - A coleção não pode ser vazia (o PostgreSQL não aceita "IN ()").
      */
-    @Query(value = "SELECT * FROM tb_produtos WHERE descricao ILIKE CONCAT('%', :descricao, '%')", nativeQuery = true)
-    List<Produto> buscarPorDescricao(@Param("descricao") String descricao);
+    @Query(value = "SELECT * FROM tb_produtos WHERE id IN (:ids) ORDER BY id ASC", nativeQuery = true)
+    List<Produto> buscarPorIds(@Param("ids") Collection<Long> ids);
 
     /**
-     * Consultar produtos por descrição ou identificador
-     * O CAST transforma o ID num texto para comparar com o que o usuário digitou.
-     * O ILIKE e o CONCAT buscam a palavra em qualquer parte da descrição (ignorando
-     * maiúsculas).
+     * Mesma consulta do buscarPorIds, travando as linhas (FOR UPDATE) até o fim da transação.
+     * - Outro pedido com os mesmos produtos espera esta transação terminar e então lê o estoque já baixado.
+     * - A ordem por ID faz todas as transações travarem os produtos na mesma sequência, evitando deadlocks.
      */
-    @Query(value = "SELECT * FROM tb_produtos WHERE CAST(id AS TEXT) = :identificador OR descricao ILIKE CONCAT('%', :identificador, '%')", nativeQuery = true)
-    List<Produto> buscarPorDescricaoOuId(@Param("identificador") String identificador);
+    @Query(value = "SELECT * FROM tb_produtos WHERE id IN (:ids) ORDER BY id ASC FOR UPDATE", nativeQuery = true)
+    List<Produto> buscarPorIdsParaAtualizar(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Carrega de uma só vez (buscarPorIds) todos os produtos citados nos itens de um pedido, indexados pelo ID.
+     * Usado pela cotação e pelas reservas do carrinho.
+     */
+    default Map<Long, Produto> buscarProdutosDosItens(List<OTDProdutoRequest> itens) {
+        Set<Long> ids = idsDosItens(itens);
+        return indexarPorId(ids.isEmpty() ? List.of() : buscarPorIds(ids));
+    }
+
+    /**
+     * Igual ao buscarProdutosDosItens, mas travando os produtos (buscarPorIdsParaAtualizar).
+     * Usado pelo cadastro de pedidos, que baixa o estoque: deve ser chamado dentro da transação.
+     */
+    default Map<Long, Produto> travarProdutosDosItens(List<OTDProdutoRequest> itens) {
+        Set<Long> ids = idsDosItens(itens);
+        return indexarPorId(ids.isEmpty() ? List.of() : buscarPorIdsParaAtualizar(ids));
+    }
+
+    private static Set<Long> idsDosItens(List<OTDProdutoRequest> itens) {
+        Set<Long> ids = new HashSet<>();
+        for (OTDProdutoRequest item : itens) {
+            if (item.getProdutoId() != null) {
+                ids.add(item.getProdutoId());
+            }
+        }
+        return ids;
+    }
+
+    private static Map<Long, Produto> indexarPorId(List<Produto> lista) {
+        Map<Long, Produto> produtos = new HashMap<>();
+        for (Produto produto : lista) {
+            produtos.put(produto.getId(), produto);
+        }
+        return produtos;
+    }
+
+    /**
+     * Consultar produtos por descrição
+     * - O ILIKE sobre f_unaccent(descricao) ignora maiúsculas e acentos e é atendido pelo índice GIN de trigramas
+     * (idx_produtos_descricao_trgm), mesmo com o '%' no início do termo.
+     * - Os resultados mais parecidos com o termo (similarity) aparecem primeiro.
+     * - O LIMIT evita devolver milhares de linhas quando o termo é muito genérico.
+     */
+    @Query(value = "SELECT * FROM tb_produtos WHERE f_unaccent(descricao) ILIKE CONCAT('%', f_unaccent(:descricao), '%') " +
+            "ORDER BY similarity(f_unaccent(descricao), f_unaccent(:descricao)) DESC, id ASC LIMIT :limite", nativeQuery = true)
+    List<Produto> buscarPorDescricao(@Param("descricao") String descricao, @Param("limite") int limite);
 }
\ No newline at end of file
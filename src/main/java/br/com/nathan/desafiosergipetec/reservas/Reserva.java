@@ -0,0 +1,33 @@
+package br.com.nathan.desafiosergipetec.reservas;
+
+import java.util.Map;
+
+/**
+ * Reserva temporária de estoque de um carrinho. Todos os campos são protegidos pela trava do ServicoReservas.
+ */
+final class Reserva {
+
+    enum Estado {
+        // Segurando estoque, aguardando o pedido (ou a expiração)
+        PENDENTE,
+        // Sendo convertida em pedido: não expira nem pode ser cancelada até a transação terminar
+        CONVERTENDO
+    }
+
+    final String id;
+
+    // Quantidade reservada por produto (produtoId -> quantidade)
+    Map<Long, Integer> itens;
+
+    long tickExpiracao;
+    long expiraEmMillis;
+    Estado estado = Estado.PENDENTE;
+
+    Reserva(String id) {
+        this.id = id;
+    }
+
+    int quantidade(Long produtoId) {
+        return itens.getOrDefault(produtoId, 0);
+    }
+}
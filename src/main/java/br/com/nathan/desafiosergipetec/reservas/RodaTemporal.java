@@ -0,0 +1,128 @@
+package br.com.nathan.desafiosergipetec.reservas;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Roda temporal hierárquica ("hierarchical timing wheel") para agendar expirações.
+ *
+ * O tempo é contado em "ticks" (a resolução é definida por quem usa a roda). A roda tem NIVEIS níveis
+ * de 64 posições cada:
+ * - Nível 0: uma posição por tick (próximos 64 ticks).
+ * - Nível 1: uma posição a cada 64 ticks (próximos 64^2 ticks), e assim por diante.
+ *
+ * Custos:
+ * - Agendar: O(1), apenas calcula a posição e adiciona na fila dela.
+ * - Avançar um tick: O(itens que expiram) na posição atual do nível 0. A cada volta completa de um nível,
+ * a posição correspondente do nível acima é redistribuída ("cascata") nos níveis inferiores;
+ * cada item desce no máximo NIVEIS - 1 vezes ao longo da sua vida.
+ *
+ * Cancelamentos não removem o item da roda (isso custaria uma busca). Quem usa a roda confere,
+ * no momento da expiração, se o item ainda é válido.
+ *
+ * Não é thread-safe: deve ser usada sob a trava de quem a possui.
+ */
+final class RodaTemporal<T> {
+
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int POSICOES = 1 << BITS_POR_NIVEL;
+    private static final long MASCARA = POSICOES - 1;
+    private static final int NIVEIS = 4;
+
+    // Maior distância (em ticks) representável. Prazos maiores são reagendados ao chegar no fim da roda.
+    private static final long ALCANCE = 1L << (BITS_POR_NIVEL * NIVEIS);
+
+    private final ArrayDeque<Entrada<T>>[][] posicoes;
+    private long tickAtual;
+    private int tamanho;
+
+    RodaTemporal(long tickInicial) {
+        this.tickAtual = tickInicial;
+        this.posicoes = novasPosicoes();
+        for (int nivel = 0; nivel < NIVEIS; nivel++) {
+            for (int posicao = 0; posicao < POSICOES; posicao++) {
+                posicoes[nivel][posicao] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    // Java não cria arrays de tipos genéricos: o array é criado com curinga e convertido (seguro, pois nunca é exposto)
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayDeque<Entrada<T>>[][] novasPosicoes() {
+        return (ArrayDeque<Entrada<T>>[][]) new ArrayDeque<?>[NIVEIS][POSICOES];
+    }
+
+    /**
+     * Agenda o item para expirar no tick informado. Prazos já vencidos expiram no próximo tick.
+     */
+    void agendar(T item, long tickExpiracao) {
+        inserir(new Entrada<>(item, tickExpiracao), Math.max(tickExpiracao, tickAtual + 1));
+        tamanho++;
+    }
+
+    /**
+     * Avança a roda até o tick informado, entregando ao consumidor cada item cujo prazo venceu.
+     */
+    void avancar(long ate, Consumer<T> aoExpirar) {
+        while (tickAtual < ate) {
+            tickAtual++;
+
+            // Cascata: ao completar uma volta do nível abaixo, redistribui a posição atual do nível acima
+            for (int nivel = 1; nivel < NIVEIS; nivel++) {
+                if ((tickAtual & ((1L << (BITS_POR_NIVEL * nivel)) - 1)) != 0) {
+                    break;
+                }
+                for (Entrada<T> entrada : esvaziar(nivel, (int) ((tickAtual >> (BITS_POR_NIVEL * nivel)) & MASCARA))) {
+                    inserir(entrada, Math.max(entrada.tick, tickAtual));
+                }
+            }
+
+            for (Entrada<T> entrada : esvaziar(0, (int) (tickAtual & MASCARA))) {
+                if (entrada.tick <= tickAtual) {
+                    tamanho--;
+                    aoExpirar.accept(entrada.item);
+                } else {
+                    // Prazo além do alcance da roda: ainda não venceu, volta para o nível adequado
+                    inserir(entrada, entrada.tick);
+                }
+            }
+        }
+    }
+
+    // Quantidade de itens agendados (inclui os já cancelados que ainda não chegaram à sua posição)
+    int getTamanho() {
+        return tamanho;
+    }
+
+    long getTickAtual() {
+        return tickAtual;
+    }
+
+    // Escolhe o nível pela distância até o prazo e a posição pelos bits do próprio prazo
+    private void inserir(Entrada<T> entrada, long tick) {
+        long distancia = tick - tickAtual;
+        if (distancia >= ALCANCE) {
+            tick = tickAtual + ALCANCE - 1;
+            distancia = ALCANCE - 1;
+        }
+
+        int nivel = 0;
+        while (distancia >= (1L << (BITS_POR_NIVEL * (nivel + 1)))) {
+            nivel++;
+        }
+        posicoes[nivel][(int) ((tick >> (BITS_POR_NIVEL * nivel)) & MASCARA)].add(entrada);
+    }
+
+    // Troca a fila da posição por uma vazia, para que reinserções nunca caiam na fila sendo percorrida
+    private ArrayDeque<Entrada<T>> esvaziar(int nivel, int posicao) {
+        ArrayDeque<Entrada<T>> fila = posicoes[nivel][posicao];
+        if (fila.isEmpty()) {
+            return fila;
+        }
+        posicoes[nivel][posicao] = new ArrayDeque<>();
+        return fila;
+    }
+
+    private record Entrada<T>(T item, long tick) {
+    }
+}
@@ -0,0 +1,358 @@
+package br.com.nathan.desafiosergipetec.reservas;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.financeiro.Centavos;
+import br.com.nathan.desafiosergipetec.otds.OTDCotacaoPedido;
+import br.com.nathan.desafiosergipetec.otds.OTDItemCotacao;
+import br.com.nathan.desafiosergipetec.otds.OTDProdutoRequest;
+import br.com.nathan.desafiosergipetec.otds.OTDReserva;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reservas temporárias de estoque para os carrinhos, e a cotação que considera essas reservas.
+ *
+ * Detalhes da implementação:
+ * 1. Estoque Disponível: Reservar não altera tb_produtos. O total reservado de cada produto fica em memória e
+ * o estoque disponível passa a ser "quantidade_estoque - reservado". A cotação e o salvar (sem reserva)
+ * respeitam esse valor, então uma reserva nunca é tomada por outro carrinho.
+ *
+ * 2. Expiração com Roda Temporal: Cada reserva vale por "reservas.ttl-segundos" (renovado a cada alteração
+ * do carrinho). Os prazos ficam numa RodaTemporal: agendar custa O(1), mesmo com milhões de reservas pendentes,
+ * e a cada tick só são visitadas as reservas que vencem naquele tick. As vencidas são liberadas em lote,
+ * sob uma única aquisição da trava.
+ *
+ * 3. Conversão em Pedido: O salvar informa a reserva; as quantidades reservadas não disputam com os outros carrinhos,
+ * mas o pedido inteiro ainda é conferido contra o estoque do banco, lido com as linhas dos produtos travadas.
+ * O estoque segurado só é liberado após o commit do pedido. Se a transação falhar, a reserva volta a valer.
+ *
+ * As reservas vivem apenas na memória desta instância: reiniciar a aplicação libera todas (o estoque do banco
+ * não é afetado, pois ele só muda quando o pedido é gravado).
+ *
+ * Implantação: o recurso pressupõe uma única instância da aplicação, ou um balanceador com sessões fixas
+ * (sticky sessions) que mande todas as requisições de um carrinho para a mesma instância. Com várias instâncias
+ * sem essa afinidade, cada uma só enxerga as próprias reservas: o estoque segurado numa não é descontado nas
+ * outras, e um salvar que cai em outra instância não encontra a reserva (os itens passam pela conferência
+ * normal de estoque, como numa reserva expirada).
+ */
+@Service
+public class ServicoReservas {
+
+    private static final Logger log = LoggerFactory.getLogger(ServicoReservas.class);
+
+    private final RepositorioProduto repositorioProduto;
+    private final long ttlMillis;
+    private final long resolucaoMillis;
+
+    private final ReentrantLock trava = new ReentrantLock();
+
+    // Campos protegidos pela trava
+    private final Map<String, Reserva> reservas = new HashMap<>();
+    private final RodaTemporal<Reserva> roda;
+
+    // Total reservado por produto. Alterado apenas sob a trava; lido sem trava pelas cotações e pelo salvar.
+    private final Map<Long, Integer> reservadoPorProduto = new ConcurrentHashMap<>();
+
+    public ServicoReservas(RepositorioProduto repositorioProduto,
+            @Value("${reservas.ttl-segundos:600}") long ttlSegundos,
+            @Value("${reservas.resolucao-ms:1000}") long resolucaoMillis) {
+        this.repositorioProduto = repositorioProduto;
+        this.ttlMillis = ttlSegundos * 1000L;
+        this.resolucaoMillis = resolucaoMillis;
+        this.roda = new RodaTemporal<>(tickAtual());
+    }
+
+    // Quantidade do produto segurada por reservas pendentes (ou em conversão)
+    public int reservado(Long produtoId) {
+        return reservadoPorProduto.getOrDefault(produtoId, 0);
+    }
+
+    /**
+     * Cota os itens sem reservar nada. Se "reservaId" for informada, o estoque segurado por ela
+     * conta como disponível para este carrinho.
+     */
+    public OTDCotacaoPedido cotar(List<OTDProdutoRequest> itens, String reservaId) {
+        Map<Long, Produto> produtos = repositorioProduto.buscarProdutosDosItens(itens);
+
+        Map<Long, Integer> propria = Map.of();
+        if (reservaId != null) {
+            trava.lock();
+            try {
+                Reserva reserva = reservas.get(reservaId);
+                if (reserva != null) {
+                    propria = reserva.itens;
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+        return montarCotacao(itens, produtos, propria);
+    }
+
+    /**
+     * Cria uma reserva para o carrinho inteiro ("tudo ou nada").
+     * Se algum item não puder ser reservado, nada é reservado e a cotação explica o motivo.
+     */
+    public OTDReserva criar(List<OTDProdutoRequest> itens) {
+        // A leitura dos produtos acontece fora da trava; a conferência e a reserva, dentro dela
+        Map<Long, Produto> produtos = repositorioProduto.buscarProdutosDosItens(itens);
+
+        trava.lock();
+        try {
+            OTDCotacaoPedido cotacao = montarCotacao(itens, produtos, Map.of());
+            if (!cotacao.isDisponivel()) {
+                return new OTDReserva(null, null, cotacao);
+            }
+
+            Reserva reserva = new Reserva(UUID.randomUUID().toString());
+            reservas.put(reserva.id, reserva);
+            segurar(reserva, cotacao);
+            return paraOTD(reserva, cotacao);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Substitui os itens de uma reserva pendente (o carrinho foi alterado) e renova o prazo.
+     * Se o novo carrinho não couber no estoque, a reserva anterior é mantida como estava.
+     * Devolve vazio quando a reserva não existe mais (expirou, foi cancelada ou virou pedido).
+     */
+    public Optional<OTDReserva> atualizar(String id, List<OTDProdutoRequest> itens) {
+        Map<Long, Produto> produtos = repositorioProduto.buscarProdutosDosItens(itens);
+
+        trava.lock();
+        try {
+            Reserva reserva = reservas.get(id);
+            if (reserva == null || reserva.estado != Reserva.Estado.PENDENTE) {
+                return Optional.empty();
+            }
+
+            OTDCotacaoPedido cotacao = montarCotacao(itens, produtos, reserva.itens);
+            if (cotacao.isDisponivel()) {
+                liberar(reserva);
+                segurar(reserva, cotacao);
+            }
+            return Optional.of(paraOTD(reserva, cotacao));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Cancela uma reserva pendente, liberando o estoque na hora. Devolve false se ela não existir.
+    public boolean cancelar(String id) {
+        trava.lock();
+        try {
+            Reserva reserva = reservas.get(id);
+            if (reserva == null || reserva.estado != Reserva.Estado.PENDENTE) {
+                return false;
+            }
+            reservas.remove(id);
+            liberar(reserva);
+            return true;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Inicia a conversão da reserva em pedido e devolve as quantidades reservadas por produto.
+     * Deve ser chamado dentro da transação do salvar: o estoque segurado é liberado somente após o commit
+     * (quando a baixa no tb_produtos já está gravada) e, em caso de rollback, a reserva volta a ficar pendente.
+     *
+     * Se a reserva não existir mais (ex: o carrinho ficou parado além do prazo e ela expirou), devolve um mapa vazio:
+     * o pedido segue com a conferência normal de estoque, como se tivesse sido enviado sem reserva.
+     */
+    public Map<Long, Integer> converter(String id) {
+        Reserva reserva;
+        Map<Long, Integer> itens;
+
+        trava.lock();
+        try {
+            reserva = reservas.get(id);
+            if (reserva == null || reserva.estado != Reserva.Estado.PENDENTE) {
+                log.debug("Reserva {} não encontrada ou expirada: o pedido usa a conferência normal de estoque", id);
+                return Map.of();
+            }
+            reserva.estado = Reserva.Estado.CONVERTENDO;
+            itens = reserva.itens;
+        } finally {
+            trava.unlock();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                finalizarConversao(reserva, status == STATUS_COMMITTED);
+            }
+        });
+        return itens;
+    }
+
+    /**
+     * Tick da roda temporal: libera, em lote, todas as reservas cujo prazo venceu.
+     */
+    @Scheduled(fixedDelayString = "${reservas.resolucao-ms:1000}")
+    public void expirarReservas() {
+        int[] expiradas = {0};
+
+        trava.lock();
+        try {
+            roda.avancar(tickAtual(), reserva -> {
+                // Entradas de reservas já canceladas, convertidas ou renovadas são apenas descartadas
+                if (reservas.get(reserva.id) == reserva && reserva.estado == Reserva.Estado.PENDENTE
+                        && reserva.tickExpiracao <= roda.getTickAtual()) {
+                    reservas.remove(reserva.id);
+                    liberar(reserva);
+                    expiradas[0]++;
+                }
+            });
+        } finally {
+            trava.unlock();
+        }
+
+        if (expiradas[0] > 0) {
+            log.debug("Reservas: {} expiradas e liberadas ({} pendentes)", expiradas[0], getPendentes());
+        }
+    }
+
+    public int getPendentes() {
+        trava.lock();
+        try {
+            return reservas.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void finalizarConversao(Reserva reserva, boolean confirmado) {
+        trava.lock();
+        try {
+            if (confirmado || reserva.tickExpiracao <= roda.getTickAtual()) {
+                // Pedido gravado (a baixa de estoque já está no banco) ou reserva vencida durante a tentativa
+                reservas.remove(reserva.id);
+                liberar(reserva);
+            } else {
+                reserva.estado = Reserva.Estado.PENDENTE;
+                roda.agendar(reserva, reserva.tickExpiracao);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Mesmas regras do salvar, aplicadas sem gravar nada: preços atuais, total de cada linha já com desconto
+     * e total do pedido arredondado uma única vez (classe Centavos). Itens repetidos do mesmo produto consomem
+     * o mesmo estoque. "propria" é o estoque já segurado pela reserva deste carrinho.
+     */
+    private OTDCotacaoPedido montarCotacao(List<OTDProdutoRequest> itensDto, Map<Long, Produto> produtos,
+            Map<Long, Integer> propria) {
+        // Estoque ainda livre de cada produto, descontado à medida que os itens são cotados
+        Map<Long, Integer> estoqueRestante = new HashMap<>();
+        List<OTDItemCotacao> itens = new ArrayList<>(itensDto.size());
+        long brutoEmFracao = 0;
+        long totalEmFracao = 0;
+        boolean disponivel = !itensDto.isEmpty();
+
+        for (OTDProdutoRequest itemDto : itensDto) {
+            Produto produto = itemDto.getProdutoId() != null ? produtos.get(itemDto.getProdutoId()) : null;
+            Integer quantidade = itemDto.getQuantidade();
+            int desconto = itemDto.getDesconto() != null ? itemDto.getDesconto() : 0;
+            Integer estoqueDisponivel = produto != null ? Math.max(0, estoqueDisponivel(produto, propria)) : null;
+
+            String mensagem = produto == null
+                    ? "Produto não encontrado: ID " + itemDto.getProdutoId()
+                    : itemDto.validar();
+            if (mensagem == null) {
+                int livre = estoqueRestante.getOrDefault(produto.getId(), estoqueDisponivel);
+                if (livre < quantidade) {
+                    mensagem = "Estoque insuficiente para o produto: " + produto.getDescricao();
+                } else {
+                    estoqueRestante.put(produto.getId(), livre - quantidade);
+                }
+            }
+
+            if (mensagem != null) {
+                disponivel = false;
+                itens.add(new OTDItemCotacao(itemDto.getProdutoId(),
+                        produto != null ? produto.getDescricao() : null, quantidade, desconto,
+                        produto != null ? produto.getValor() : null, BigDecimal.ZERO,
+                        estoqueDisponivel, false, mensagem));
+                continue;
+            }
+
+            long valorCentavos = Centavos.deReais(produto.getValor());
+            long itemEmFracao = Centavos.totalItemEmFracao(quantidade, valorCentavos, desconto);
+            brutoEmFracao += Centavos.totalBrutoEmFracao(quantidade, valorCentavos);
+            totalEmFracao += itemEmFracao;
+
+            itens.add(new OTDItemCotacao(produto.getId(), produto.getDescricao(), quantidade, desconto,
+                    produto.getValor(), Centavos.paraReais(Centavos.arredondar(itemEmFracao)),
+                    estoqueDisponivel, true, null));
+        }
+
+        long brutoCentavos = Centavos.arredondar(brutoEmFracao);
+        long totalCentavos = Centavos.arredondar(totalEmFracao);
+
+        return new OTDCotacaoPedido(itens, Centavos.paraReais(brutoCentavos),
+                Centavos.paraReais(brutoCentavos - totalCentavos), Centavos.paraReais(totalCentavos), disponivel);
+    }
+
+    // Estoque do banco menos o que está reservado por outros carrinhos
+    private int estoqueDisponivel(Produto produto, Map<Long, Integer> propria) {
+        return produto.getQuantidadeEstoque() - reservado(produto.getId()) + propria.getOrDefault(produto.getId(), 0);
+    }
+
+    // Segura as quantidades da cotação (já validada) e agenda a expiração. Chamado sob a trava.
+    private void segurar(Reserva reserva, OTDCotacaoPedido cotacao) {
+        Map<Long, Integer> itens = new HashMap<>();
+        for (OTDItemCotacao item : cotacao.getItens()) {
+            itens.merge(item.getProdutoId(), item.getQuantidade(), Integer::sum);
+        }
+        itens.forEach((produtoId, quantidade) -> reservadoPorProduto.merge(produtoId, quantidade, Integer::sum));
+
+        long expiraEmMillis = System.currentTimeMillis() + ttlMillis;
+        reserva.itens = itens;
+        reserva.expiraEmMillis = expiraEmMillis;
+        reserva.tickExpiracao = Math.ceilDiv(expiraEmMillis, resolucaoMillis);
+
+        // A entrada anterior (se houver) continua na roda e será descartada ao vencer, pois o prazo mudou
+        roda.agendar(reserva, reserva.tickExpiracao);
+    }
+
+    // Devolve ao estoque disponível as quantidades seguradas pela reserva. Chamado sob a trava.
+    private void liberar(Reserva reserva) {
+        reserva.itens.forEach((produtoId, quantidade) ->
+                reservadoPorProduto.computeIfPresent(produtoId, (id, total) -> total > quantidade ? total - quantidade : null));
+    }
+
+    private long tickAtual() {
+        return System.currentTimeMillis() / resolucaoMillis;
+    }
+
+    private static OTDReserva paraOTD(Reserva reserva, OTDCotacaoPedido cotacao) {
+        LocalDateTime expiraEm = LocalDateTime.ofInstant(Instant.ofEpochMilli(reserva.expiraEmMillis), ZoneId.systemDefault());
+        return new OTDReserva(reserva.id, expiraEm, cotacao);
+    }
+}
@@ -0,0 +1,30 @@
+-- Migração 001: total gravado no pedido (tb_pedidos.valor_total) e índice do histórico de pedidos por cliente.
+--
+-- Necessária apenas para bancos criados antes da coluna valor_total (bancos novos já a recebem pelo schema.sql).
+-- Sem ela a aplicação não inicia (spring.jpa.hibernate.ddl-auto=validate exige a coluna).
+-- Executar uma vez, com a aplicação parada, antes de subir a nova versão:
+--   psql -d sales_management_db -f src/main/resources/migracoes/001_valor_total_pedidos.sql
+--
+-- Pode ser executada de novo sem efeito colateral: a coluna e o índice só são criados se não existirem,
+-- e o total é recalculado a partir dos itens apenas para os pedidos em que estiver diferente.
+BEGIN;
+
+ALTER TABLE tb_pedidos ADD COLUMN IF NOT EXISTS valor_total NUMERIC(12, 2) NOT NULL DEFAULT 0;
+
+COMMENT ON COLUMN tb_pedidos.valor_total IS 'Valor total do pedido (com descontos), calculado uma única vez ao salvar.';
+
+-- Mesma regra do Pedido.recalcularValorTotal: soma exata dos itens com desconto, arredondada (HALF_UP) uma única vez.
+-- O UPDATE reescreve as linhas alteradas: em bancos grandes, executar fora do horário de vendas.
+UPDATE tb_pedidos p SET valor_total = totais.total
+FROM (
+    SELECT i.pedido_id,
+           ROUND(SUM(i.quantidade_itens * i.valor * (100 - COALESCE(i.desconto_percentual, 0)) / 100.0), 2) AS total
+    FROM tb_itens_pedido i
+    GROUP BY i.pedido_id
+) totais
+WHERE totais.pedido_id = p.id AND p.valor_total <> totais.total;
+
+-- Histórico de pedidos por cliente (/api/clientes/{id}/pedidos): depende da coluna acima (INCLUDE)
+CREATE INDEX IF NOT EXISTS idx_pedidos_cliente_data ON tb_pedidos (cliente_id, data_pedido DESC, id DESC) INCLUDE (valor_total);
+
+COMMIT;
@@ -0,0 +1,26 @@
+-- Migração 002: índice dos itens por pedido e busca textual de clientes e produtos (pg_trgm + unaccent).
+--
+-- Necessária apenas para bancos criados antes desta versão do schema.sql. Sem ela a consulta de clientes e produtos
+-- por nome/descrição falha (a função f_unaccent não existe). Executar uma vez, depois da 001:
+--   psql -d sales_management_db -f src/main/resources/migracoes/002_indices_e_busca_textual.sql
+--
+-- As extensões exigem um usuário com permissão de CREATE no banco (ex: o dono do banco ou um superusuário).
+-- Pode ser executada de novo sem efeito colateral: tudo só é criado se ainda não existir.
+-- A criação dos índices bloqueia a escrita nas tabelas enquanto dura: em bancos grandes, executar fora do horário de vendas.
+BEGIN;
+
+-- Índice da chave estrangeira dos itens (JOINs entre pedidos e itens e carga do motor analítico)
+CREATE INDEX IF NOT EXISTS idx_itens_pedido_pedido_id ON tb_itens_pedido (pedido_id);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- Mesmo invólucro IMMUTABLE do schema.sql (necessário para usar unaccent() nos índices)
+CREATE OR REPLACE FUNCTION f_unaccent(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, texto) $$;
+
+CREATE INDEX IF NOT EXISTS idx_clientes_nome_trgm ON tb_clientes USING GIN (f_unaccent(nome) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_produtos_descricao_trgm ON tb_produtos USING GIN (f_unaccent(descricao) gin_trgm_ops);
+
+COMMIT;
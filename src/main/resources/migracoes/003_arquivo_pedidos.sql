@@ -0,0 +1,43 @@
+-- Migração 003: arquivo frio de pedidos antigos (schema 'arquivo', ServicoArquivamento).
+--
+-- Necessária apenas para bancos criados antes desta versão do schema.sql. Sem ela a aplicação não inicia
+-- (spring.jpa.hibernate.ddl-auto=validate exige a tabela arquivo.tb_pedidos_arquivados). Executar uma vez, depois da 002:
+--   psql -d sales_management_db -f src/main/resources/migracoes/003_arquivo_pedidos.sql
+--
+-- A compressão lz4 exige PostgreSQL 14 ou superior, compilado com suporte a lz4 (padrão nos pacotes oficiais).
+-- Pode ser executada de novo sem efeito colateral: tudo só é criado se ainda não existir. O índice de histórico por cliente
+-- substitui o antigo índice apenas por cliente_id (de versões anteriores do arquivo), que é removido.
+BEGIN;
+
+CREATE SCHEMA IF NOT EXISTS arquivo;
+
+CREATE TABLE IF NOT EXISTS arquivo.tb_pedidos_arquivados (
+    id BIGINT PRIMARY KEY,
+    cliente_id BIGINT NOT NULL,
+    nome_cliente VARCHAR(150) NOT NULL,
+    data_pedido TIMESTAMP NOT NULL,
+    valor_total NUMERIC(12, 2) NOT NULL,
+    itens JSONB COMPRESSION lz4 NOT NULL,
+    data_arquivamento TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) WITH (toast_tuple_target = 128);
+
+COMMENT ON TABLE arquivo.tb_pedidos_arquivados IS 'Pedidos antigos movidos para armazenamento frio, com os itens agregados em JSONB comprimido.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.id IS 'Mesmo identificador que o pedido possuía em tb_pedidos.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.cliente_id IS 'Identificador do cliente que realizou o pedido.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.nome_cliente IS 'Nome do cliente no momento do arquivamento.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.data_pedido IS 'Data e hora em que o pedido foi finalizado.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.valor_total IS 'Valor total do pedido (com descontos), preservado do pedido original.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.itens IS 'Itens do pedido: produto_id, descricao, valor, quantidade_itens e desconto_percentual.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.data_arquivamento IS 'Data e hora em que o pedido foi movido para o arquivo.';
+
+CREATE INDEX IF NOT EXISTS idx_pedidos_arquivados_data ON arquivo.tb_pedidos_arquivados (data_pedido);
+CREATE INDEX IF NOT EXISTS idx_pedidos_arquivados_cliente_data
+    ON arquivo.tb_pedidos_arquivados (cliente_id, data_pedido DESC, id DESC) INCLUDE (valor_total);
+CREATE INDEX IF NOT EXISTS idx_pedidos_arquivados_itens ON arquivo.tb_pedidos_arquivados USING GIN (itens jsonb_path_ops);
+
+DROP INDEX IF EXISTS arquivo.idx_pedidos_arquivados_cliente;
+
+-- Índice usado pelo arquivamento (pedidos anteriores à data de corte) e pela carga inicial dos rankings
+CREATE INDEX IF NOT EXISTS idx_pedidos_data ON tb_pedidos (data_pedido);
+
+COMMIT;
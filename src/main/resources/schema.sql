@@ -33,6 +33,7 @@ CREATE TABLE tb_pedidos (
     id BIGSERIAL PRIMARY KEY,
     cliente_id BIGINT NOT NULL,
     data_pedido TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    valor_total NUMERIC(12, 2) NOT NULL DEFAULT 0,
     CONSTRAINT fk_pedido_cliente FOREIGN KEY (cliente_id) REFERENCES tb_clientes(id)
 );
 
@@ -40,6 +41,7 @@ COMMENT ON TABLE tb_pedidos IS 'Tabela principal de pedidos realizados pelos cli
 COMMENT ON COLUMN tb_pedidos.id IS 'Identificador único do pedido (Chave Primária).';
 COMMENT ON COLUMN tb_pedidos.cliente_id IS 'Chave estrangeira referenciando o cliente que realizou o pedido.';
 COMMENT ON COLUMN tb_pedidos.data_pedido IS 'Data e hora em que o pedido foi finalizado.';
+COMMENT ON COLUMN tb_pedidos.valor_total IS 'Valor total do pedido (com descontos), calculado uma única vez ao salvar.';
 
 -- Criação da tabela de Itens do Pedido (A relação entre Pedido e Produto)
 CREATE TABLE tb_itens_pedido (
@@ -59,4 +61,63 @@ COMMENT ON COLUMN tb_itens_pedido.pedido_id IS 'Chave estrangeira referenciando
 COMMENT ON COLUMN tb_itens_pedido.produto_id IS 'Chave estrangeira referenciando qual produto foi comprado.';
 COMMENT ON COLUMN tb_itens_pedido.valor IS 'Valor unitário do produto travado no momento exato da compra.';
 COMMENT ON COLUMN tb_itens_pedido.quantidade_itens IS 'Quantidade comprada deste produto no pedido.';
-COMMENT ON COLUMN tb_itens_pedido.desconto_percentual IS 'Porcentagem do desconto aplicado especificamente neste item.';
\ No newline at end of file
+COMMENT ON COLUMN tb_itens_pedido.desconto_percentual IS 'Porcentagem do desconto aplicado especificamente neste item.';
+
+-- Índice da chave estrangeira dos itens (o PostgreSQL não cria índices para FKs automaticamente).
+-- Atende os JOINs entre pedidos e itens e a identificação do primeiro item de cada pedido na carga do motor analítico.
+CREATE INDEX idx_itens_pedido_pedido_id ON tb_itens_pedido (pedido_id);
+
+-- Busca textual de clientes e produtos (pg_trgm + unaccent)
+-- pg_trgm quebra os textos em trigramas, permitindo que um índice GIN atenda buscas com '%' no início (ILIKE '%termo%')
+-- e ordene os resultados por similaridade. unaccent remove os acentos ("Joao" encontra "João").
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- A função unaccent() não é IMMUTABLE, por isso não pode ser usada diretamente em índices.
+-- Este invólucro fixa o dicionário e pode ser marcado como IMMUTABLE com segurança.
+CREATE OR REPLACE FUNCTION f_unaccent(texto TEXT) RETURNS TEXT
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT
+    AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, texto) $$;
+
+-- As consultas precisam usar exatamente a expressão f_unaccent(coluna) para que o índice seja escolhido.
+CREATE INDEX idx_clientes_nome_trgm ON tb_clientes USING GIN (f_unaccent(nome) gin_trgm_ops);
+CREATE INDEX idx_produtos_descricao_trgm ON tb_produtos USING GIN (f_unaccent(descricao) gin_trgm_ops);
+
+-- Histórico de pedidos por cliente (/api/clientes/{id}/pedidos)
+-- Índice "cobrindo" (INCLUDE): a página mais recente de um cliente é lida só do índice (Index Only Scan),
+-- já na ordem certa, sem acessar a tabela e independente do tamanho do histórico.
+CREATE INDEX idx_pedidos_cliente_data ON tb_pedidos (cliente_id, data_pedido DESC, id DESC) INCLUDE (valor_total);
+
+-- Bancos criados com uma versão anterior deste arquivo: executar as migrações da pasta migracoes, em ordem (ver README)
+
+-- Arquivo frio de pedidos antigos (ServicoArquivamento)
+-- Pedidos mais antigos que a idade configurada saem de tb_pedidos/tb_itens_pedido e vêm para cá numa única linha,
+-- com os itens em JSONB comprimido (lz4). O toast_tuple_target baixo faz o PostgreSQL comprimir mesmo linhas pequenas.
+CREATE SCHEMA IF NOT EXISTS arquivo;
+
+CREATE TABLE arquivo.tb_pedidos_arquivados (
+    id BIGINT PRIMARY KEY,
+    cliente_id BIGINT NOT NULL,
+    nome_cliente VARCHAR(150) NOT NULL,
+    data_pedido TIMESTAMP NOT NULL,
+    valor_total NUMERIC(12, 2) NOT NULL,
+    itens JSONB COMPRESSION lz4 NOT NULL,
+    data_arquivamento TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) WITH (toast_tuple_target = 128);
+
+COMMENT ON TABLE arquivo.tb_pedidos_arquivados IS 'Pedidos antigos movidos para armazenamento frio, com os itens agregados em JSONB comprimido.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.id IS 'Mesmo identificador que o pedido possuía em tb_pedidos.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.cliente_id IS 'Identificador do cliente que realizou o pedido.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.nome_cliente IS 'Nome do cliente no momento do arquivamento.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.data_pedido IS 'Data e hora em que o pedido foi finalizado.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.valor_total IS 'Valor total do pedido (com descontos), preservado do pedido original.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.itens IS 'Itens do pedido: produto_id, descricao, valor, quantidade_itens e desconto_percentual.';
+COMMENT ON COLUMN arquivo.tb_pedidos_arquivados.data_arquivamento IS 'Data e hora em que o pedido foi movido para o arquivo.';
+
+CREATE INDEX idx_pedidos_arquivados_data ON arquivo.tb_pedidos_arquivados (data_pedido);
+-- Histórico de pedidos por cliente: mesma ordem e colunas do idx_pedidos_cliente_data (pedidos ativos)
+CREATE INDEX idx_pedidos_arquivados_cliente_data ON arquivo.tb_pedidos_arquivados (cliente_id, data_pedido DESC, id DESC) INCLUDE (valor_total);
+CREATE INDEX idx_pedidos_arquivados_itens ON arquivo.tb_pedidos_arquivados USING GIN (itens jsonb_path_ops);
+
+-- Índice usado pelo arquivamento para localizar os pedidos anteriores à data de corte
+CREATE INDEX idx_pedidos_data ON tb_pedidos (data_pedido);
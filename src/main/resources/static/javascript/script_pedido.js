@@ -2,6 +2,7 @@
 const API_URL_CLIENTES = 'http://localhost:8080/api/clientes';
 const API_URL_PRODUTOS = 'http://localhost:8080/api/produtos';
 const API_URL_PEDIDOS = 'http://localhost:8080/api/pedidos';
+const API_URL_RESERVAS = 'http://localhost:8080/api/reservas';
 
 /**
 * Inicialmente vazio, vai sendo preenchido conforme o usuário adiciona produtos ao carrinho.
@@ -9,6 +10,12 @@ const API_URL_PEDIDOS = 'http://localhost:8080/api/pedidos';
 */
 let itensPedido = []; 
 
+/**
+* Reserva de estoque do carrinho no servidor. Criada ao adicionar o primeiro produto e atualizada a cada alteração,
+* garante que o estoque não acabe entre montar o carrinho e confirmar o pedido.
+*/
+let reservaId = null;
+
 // O evento DOMContentLoaded garante que o HTML carregou totalmente antes do JS rodar.
 document.addEventListener("DOMContentLoaded", () => {
     // Se o elemento 'dataInicio' existe, sabemos que estamos na tela 'pedido-menu.html'
@@ -17,6 +24,13 @@ document.addEventListener("DOMContentLoaded", () => {
     }
 });
 
+// Ao sair da tela sem confirmar o pedido, libera o estoque reservado (keepalive permite concluir a requisição).
+window.addEventListener('pagehide', () => {
+    if (reservaId) {
+        fetch(`${API_URL_RESERVAS}/${reservaId}`, { method: 'DELETE', keepalive: true });
+    }
+});
+
 // FUNÇÕES DA TELA DE CADASTRO (pedido-cadastro.html)
 
 /**
@@ -69,126 +83,177 @@ async function adicionarProduto() {
     if (descontoDigitado < 0 || descontoDigitado > 100) 
         return alert("O desconto deve ser entre 0 e 100%.");
 
-    // Busca o produto na API para validar existência e estoque antes de adicionar ao carrinho
     try {
-        const response = await fetch(`${API_URL_PRODUTOS}/${identificadorProduto}`);
-        // Se o produto for encontrado, valida as regras de negócio antes de desenhar na tela
-        if (response.ok) {
+        // Se foi digitado um ID, vai direto para a cotação. Só a busca por descrição precisa consultar o produto antes.
+        let produtoId = /^\d+$/.test(identificadorProduto) ? parseInt(identificadorProduto) : null;
+        if (produtoId === null) {
+            const response = await fetch(`${API_URL_PRODUTOS}/${encodeURIComponent(identificadorProduto)}`);
+            if (!response.ok) 
+                return alert("Produto não encontrado!");
             const produtos = await response.json();
-            const produto = produtos[0];
-
-            // Validações de Negócio
-            const existe = itensPedido.find(item => item.produtoId === produto.id);
-            if (existe) 
-                return alert("Este produto já foi adicionado ao carrinho!");
-
-            // Verifica se a quantidade solicitada é menor ou igual ao estoque disponível
-            if (produto.quantidadeEstoque < quantidadeDigitada) {
-                return alert(`Estoque insuficiente! O produto ${produto.descricao} só tem ${produto.quantidadeEstoque} unidades disponíveis.`);
-            }
-
-            // Passou nas validações, desenha na tela
-            adicionarLinhaProduto(produto, quantidadeDigitada, descontoDigitado);
-            
-            // Limpa os campos de input para o próximo produto
-            document.getElementById('consultarProduto').value = ""; 
-            document.getElementById('quantidadeProduto').value = "1";
-            document.getElementById('descontoProduto').value = "0";
-        } else {
-            alert("Produto não encontrado!");
+            produtoId = produtos[0].id;
         }
+
+        // Validações de Negócio
+        const existe = itensPedido.find(item => item.produtoId === produtoId);
+        if (existe) 
+            return alert("Este produto já foi adicionado ao carrinho!");
+
+        // O servidor valida existência, preço e estoque do carrinho inteiro e o reserva numa única requisição
+        const novoItem = { produtoId: produtoId, quantidade: quantidadeDigitada, desconto: descontoDigitado };
+        const cotacao = await reservarCarrinho([...itensPedido, novoItem]);
+        if (!cotacao) 
+            return;
+
+        const itemCotado = cotacao.itens[cotacao.itens.length - 1];
+        if (!itemCotado.disponivel) 
+            return alert(itemCotado.mensagem);
+
+        // Passou nas validações, guarda o item e desenha o carrinho com os valores do servidor
+        itensPedido.push(novoItem);
+        desenharCarrinho(cotacao);
+        
+        // Limpa os campos de input para o próximo produto
+        document.getElementById('consultarProduto').value = ""; 
+        document.getElementById('quantidadeProduto').value = "1";
+        document.getElementById('descontoProduto').value = "0";
     } catch (error) {
         console.error("Erro ao buscar produto:", error);
     }
 }
 
-// Desenhando a linha do produto na tabela do pedido.
-function adicionarLinhaProduto(produto, quantidade, desconto) {
+/**
+ * Reserva o carrinho inteiro no servidor (POST na primeira vez, PUT nas alterações seguintes) e devolve a cotação
+ * (preços, subtotais, total e estoque). Todos os cálculos de valores são feitos no servidor, com a mesma regra
+ * usada ao salvar o pedido. Se algum item não couber no estoque (409), a reserva anterior continua valendo.
+ */
+async function reservarCarrinho(itens) {
+    try {
+        const response = await fetch(reservaId ? `${API_URL_RESERVAS}/${reservaId}` : API_URL_RESERVAS, {
+            method: reservaId ? 'PUT' : 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ itens: itens })
+        });
+
+        // A reserva expirou: cria uma nova para o carrinho atual
+        if (response.status === 404 && reservaId) {
+            reservaId = null;
+            return reservarCarrinho(itens);
+        }
+
+        if (!response.ok && response.status !== 409) {
+            alert("Erro ao calcular os valores do carrinho.");
+            return null;
+        }
+
+        const reserva = await response.json();
+        if (reserva.id) {
+            reservaId = reserva.id;
+        }
+        return reserva.cotacao;
+    } catch (error) {
+        console.error("Erro ao reservar carrinho:", error);
+        alert("Erro de conexão ao calcular os valores do carrinho.");
+        return null;
+    }
+}
+
+// Cancela a reserva do carrinho (carrinho esvaziado), liberando o estoque para os demais.
+async function cancelarReserva() {
+    if (!reservaId) 
+        return;
+
+    const id = reservaId;
+    reservaId = null;
+    try {
+        await fetch(`${API_URL_RESERVAS}/${id}`, { method: 'DELETE' });
+    } catch (error) {
+        console.error("Erro ao cancelar reserva:", error);
+    }
+}
+
+// Redesenha a tabela do carrinho e o total a partir da cotação devolvida pelo servidor.
+function desenharCarrinho(cotacao) {
     const tbody = document.getElementById('tabela-corpo-carrinho') || document.getElementById('tabela-corpo');
+    tbody.innerHTML = '';
+
+    // Cria cada linha da tabela e já inclui os eventos onchange para atualizar os dados do item.
+    cotacao.itens.forEach(item => {
+        const tr = document.createElement('tr');
+        tr.id = `linha-${item.produtoId}`;
+        if (!item.disponivel) {
+            tr.className = 'table-danger';
+            tr.title = item.mensagem;
+        }
 
-    // Adiciona o item ao array de estado 'itensPedido' para manter a lógica de negócio e cálculos centralizados no JavaScript,
-    // sem depender do HTML.
-    const novoItem = {
-        produtoId: produto.id,
-        valorUnitario: produto.valor,
-        quantidade: quantidade,
-        desconto: desconto
-    };
-    itensPedido.push(novoItem);
-
-    const subtotal = (produto.valor * quantidade) * (1 - (desconto / 100));
-
-    // Cria a linha da tabela usando e já inclui os eventos onchange para atualizar os dados do item.
-    const tr = document.createElement('tr');
-    tr.id = `linha-${produto.id}`;
-    tr.innerHTML = `
-        <td>${produto.id}</td>
-        <td>${produto.descricao}</td>
-        <td>R$ ${produto.valor.toLocaleString('pt-BR', { minimumFractionDigits: 2 })}</td>
-        <td>
-            <input type="number" class="form-control form-control-sm" style="width: 70px;"
-                value="${quantidade}" min="1" max="${produto.quantidadeEstoque}" 
-                onchange="atualizarDadosItem(${produto.id}, 'quantidade', this.value)">
-        </td>
-        <td>
-            <input type="number" class="form-control form-control-sm" style="width: 70px;"
-                value="${desconto}" min="0" max="100" 
-                onchange="atualizarDadosItem(${produto.id}, 'desconto', this.value)">
-        </td>
-        <td id="subtotal-${produto.id}" class="fw-bold">R$ ${subtotal.toLocaleString('pt-BR', { minimumFractionDigits: 2 })}</td>
-        <td class="text-center">
-            <button class="btn btn-outline-danger btn-sm" onclick="removerItem(${produto.id})">Remover</button>
-        </td>
-    `;
-    tbody.appendChild(tr);
-
-    // Após adicionar o produto, recalcula o total geral para refletir a nova adição.
-    atualizarTotalProdutos();
+        const valorUnitario = item.valorUnitario !== null ? formatarMoeda(item.valorUnitario) : '-';
+        const subtotal = item.disponivel ? formatarMoeda(item.valorTotal) : item.mensagem;
+
+        tr.innerHTML = `
+            <td>${item.produtoId}</td>
+            <td>${item.descricao || '-'}</td>
+            <td>${valorUnitario}</td>
+            <td>
+                <input type="number" class="form-control form-control-sm" style="width: 70px;"
+                    value="${item.quantidade}" min="1" max="${item.quantidadeEstoque || ''}" 
+                    onchange="atualizarDadosItem(${item.produtoId}, 'quantidade', this.value)">
+            </td>
+            <td>
+                <input type="number" class="form-control form-control-sm" style="width: 70px;"
+                    value="${item.desconto}" min="0" max="100" 
+                    onchange="atualizarDadosItem(${item.produtoId}, 'desconto', this.value)">
+            </td>
+            <td id="subtotal-${item.produtoId}" class="fw-bold">${subtotal}</td>
+            <td class="text-center">
+                <button class="btn btn-outline-danger btn-sm" onclick="removerItem(${item.produtoId})">Remover</button>
+            </td>
+        `;
+        tbody.appendChild(tr);
+    });
+
+    // Atualiza o valor total exibido na tela, já calculado pelo servidor.
+    const elementoTotal = document.getElementById('valor-total-pedido');
+    if (elementoTotal) {
+        elementoTotal.innerText = formatarMoeda(cotacao.valorTotal);
+    }
+}
+
+// Formata um valor numérico no padrão monetário brasileiro (R$ 1.234,56).
+function formatarMoeda(valor) {
+    return `R$ ${parseFloat(valor).toLocaleString('pt-BR', { minimumFractionDigits: 2 })}`;
 }
 
 /**
  * Disparada sempre que o usuário altera a quantidade ou desconto direto no input da tabela.
- * Atualiza o array de estado e recalcula apenas o subtotal daquela linha específica.
+ * Atualiza o array de estado e pede uma nova cotação do carrinho ao servidor (uma única requisição).
  */
-function atualizarDadosItem(id, campo, valorConvertido) {
+async function atualizarDadosItem(id, campo, valorConvertido) {
     // Encontra o item correspondente no array 'itensPedido' e atualiza o campo alterado (quantidade ou desconto).
     const item = itensPedido.find(i => i.produtoId === id);
 
     if (item) {
-        item[campo] = parseFloat(valorConvertido);
-        const subtotal = (item.valorUnitario * item.quantidade) * (1 - (item.desconto / 100));
-        
-        // Atualiza o subtotal apenas da linha alterada, sem precisar redesenhar toda a tabela.
-        const celulaSubtotal = document.getElementById(`subtotal-${id}`);
-        if (celulaSubtotal) {
-            celulaSubtotal.innerText = `R$ ${subtotal.toLocaleString('pt-BR', { minimumFractionDigits: 2 })}`;
-        }
-        atualizarTotalProdutos();
+        item[campo] = parseInt(valorConvertido) || 0;
+        await atualizarCarrinho();
     }
 }
 
-// O array é filtrado para criar um novo array sem o item removido, e a linha correspondente na tabela é deletada.
-function removerItem(id) {
+// O array é filtrado para criar um novo array sem o item removido, e o carrinho é cotado novamente.
+async function removerItem(id) {
     itensPedido = itensPedido.filter(i => i.produtoId !== id);
-    document.getElementById(`linha-${id}`).remove();
-    atualizarTotalProdutos();
+    await atualizarCarrinho();
 }
 
-/**
- * Percorre o array 'itensPedido', calcula a soma matemática de todos os subtotais 
- * e exibe o valor formatado na tela de cadastro.
- */
-function atualizarTotalProdutos() {
-    // Calcula o total geral somando o subtotal de cada item, já aplicando o desconto.
-    const totalGeral = itensPedido.reduce((acc, item) => {
-        const totalItem = (item.valorUnitario * item.quantidade) * (1 - (item.desconto / 100));
-        return acc + totalItem;
-    }, 0);
-
-    // Atualiza o valor total exibido na tela.
-    const elementoTotal = document.getElementById('valor-total-pedido');
-    if (elementoTotal) {
-        elementoTotal.innerText = `R$ ${totalGeral.toLocaleString('pt-BR', { minimumFractionDigits: 2 })}`;
+// Recalcula e reserva o carrinho inteiro no servidor e redesenha a tabela com o resultado.
+async function atualizarCarrinho() {
+    if (itensPedido.length === 0) {
+        await cancelarReserva();
+        desenharCarrinho({ itens: [], valorTotal: 0 });
+        return;
+    }
+
+    const cotacao = await reservarCarrinho(itensPedido);
+    if (cotacao) {
+        desenharCarrinho(cotacao);
     }
 }
 
@@ -206,10 +271,11 @@ async function salvarPedido() {
     // Monta o OTD seguindo a estrutura esperada pelo backend, usando os IDs e valores atuais do estado.
     const dadosPedido = {
         clienteId: parseInt(clienteId),
-        itens: itensPedido
+        itens: itensPedido,
+        reservaId: reservaId
     };
 
-    // Envia os dados do pedido para a API. O backend irá validar o estoque novamente antes de confirmar a venda.
+    // Envia os dados do pedido para a API. O estoque reservado vira venda; o que não estiver reservado é validado novamente.
     try {
         const response = await fetch(API_URL_PEDIDOS, {
             method: 'POST',
@@ -220,6 +286,8 @@ async function salvarPedido() {
         // Se a resposta for positiva, mostra alerta de sucesso e redireciona para o menu de pedidos. 
         // Caso contrário, exibe o erro retornado pelo backend.
         if (response.ok) {
+            // A reserva foi consumida pelo pedido
+            reservaId = null;
             alert("Pedido realizado com sucesso! O estoque foi atualizado.");
             window.location.href = 'pedido-menu.html';
         } else {
@@ -0,0 +1,211 @@
+package br.com.nathan.desafiosergipetec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mede a inicialização da aplicação com e sem o perfil de inicialização rápida (Spring AOT + cache AOT da JDK 25).
+ *
+ * Usa o JAR extraído e o cache gerados por "./mvnw -Paot package" e sobe a aplicação várias vezes em cada modo,
+ * alternando os modos a cada rodada. O que interessa numa instância extra é quando ela atende a primeira venda,
+ * então cada execução dispara requisições HTTP reais (GET /api/produtos/1, que consulta o banco) até a primeira
+ * resposta, lê a memória residente do processo e o encerra.
+ * Os dois modos usam o mesmo JAR e o mesmo perfil Spring "aot"; só mudam o cache AOT e o spring.aot.enabled.
+ * O aquecimento (AquecimentoInicial) fica desligado nas duas, para que ele não dispute a CPU com a primeira requisição.
+ *
+ * Para cada modo, mostra a mediana, o mínimo e o máximo de:
+ * - primeira: do início do "java" até a primeira resposta HTTP (medido aqui);
+ * - spring: o "Started ... in X seconds" do log do Spring Boot;
+ * - rss: o VmRSS de /proc/<pid>/status logo após a primeira resposta, em MB (apenas no Linux).
+ *
+ * O banco de dados precisa estar acessível. Executar (sem compilar, a partir da raiz do projeto):
+ * java src/test/java/br/com/nathan/desafiosergipetec/MedicaoInicializacao.java [rodadas] [jar] [cache]
+ */
+public class MedicaoInicializacao {
+
+    private static final String JAR_PADRAO = "target/extraido/desafio-sergipetec-0.0.1-SNAPSHOT.jar";
+    private static final String CACHE_PADRAO = "target/app.aot";
+
+    // Requisição usada como "primeira venda": passa pelo controlador, pelo repositório e pelo banco
+    private static final String CAMINHO_PRIMEIRA_REQUISICAO = "/api/produtos/1";
+
+    // Tempo máximo para a aplicação responder a primeira requisição
+    private static final Duration LIMITE_INICIALIZACAO = Duration.ofMinutes(2);
+
+    // Ex: "Started GestaoDeVendas... in 1.234 seconds (process running for 1.567)"
+    private static final Pattern LOG_INICIO = Pattern.compile("Started .* in ([0-9.]+) seconds");
+
+    private static final HttpClient CLIENTE = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int rodadas = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path jar = Path.of(args.length > 1 ? args[1] : JAR_PADRAO);
+        Path cache = Path.of(args.length > 2 ? args[2] : CACHE_PADRAO);
+
+        if (!Files.isRegularFile(jar) || !Files.isRegularFile(cache)) {
+            System.err.println("JAR ou cache AOT não encontrado. Gere antes com: ./mvnw -Paot package");
+            System.exit(1);
+        }
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> padrao = List.of(java, "-Dspring.aot.enabled=false", "-Dspring.profiles.active=aot",
+                "-Daquecimento.habilitado=false", "-jar", jar.toString());
+        List<String> aot = List.of(java, "-XX:AOTCache=" + cache, "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=aot", "-Daquecimento.habilitado=false", "-jar", jar.toString());
+
+        // Uma execução de cada modo descartada: traz o JAR e as classes da JDK para o cache do sistema operacional
+        executar(padrao);
+        executar(aot);
+
+        List<double[]> medidasPadrao = new ArrayList<>();
+        List<double[]> medidasAot = new ArrayList<>();
+        for (int i = 1; i <= rodadas; i++) {
+            medidasPadrao.add(executar(padrao));
+            medidasAot.add(executar(aot));
+            System.out.printf(Locale.ROOT, "Rodada %d/%d: padrão %.0f ms / %.0f MB, aot %.0f ms / %.0f MB%n", i, rodadas,
+                    medidasPadrao.getLast()[0], medidasPadrao.getLast()[2],
+                    medidasAot.getLast()[0], medidasAot.getLast()[2]);
+        }
+
+        System.out.println();
+        System.out.println("modo     medida          mediana        mínimo        máximo");
+        imprimir("padrão", medidasPadrao);
+        imprimir("aot", medidasAot);
+    }
+
+    /**
+     * Sobe a aplicação numa porta livre, espera a primeira resposta HTTP e encerra o processo.
+     * Devolve {tempo até a primeira resposta em ms, tempo informado pelo Spring em ms, VmRSS em MB}.
+     */
+    private static double[] executar(List<String> comando) throws IOException, InterruptedException {
+        int porta = portaLivre();
+        List<String> comandoComPorta = new ArrayList<>(comando);
+        comandoComPorta.add(1, "-Dserver.port=" + porta);
+
+        long inicio = System.nanoTime();
+        Process processo = new ProcessBuilder(comandoComPorta).redirectErrorStream(true).start();
+
+        // A saída precisa ser lida o tempo todo (senão o processo trava ao encher o buffer do pipe)
+        CompletableFuture<Double> spring = new CompletableFuture<>();
+        Thread leitor = Thread.ofPlatform().daemon().start(() -> lerSaida(processo, spring));
+
+        try {
+            double primeira = esperarPrimeiraResposta(processo, porta, inicio);
+            double rss = lerRssMb(processo.pid());
+
+            // Num contexto web o "Started" é escrito logo após o servidor começar a aceitar conexões
+            double tempoSpring = spring.get(10, TimeUnit.SECONDS);
+            return new double[] { primeira, tempoSpring, rss };
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("O log do Spring não informou o tempo de inicialização: "
+                    + String.join(" ", comandoComPorta), e);
+        } finally {
+            encerrar(processo);
+            leitor.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    // Repete a requisição até a aplicação responder. Qualquer resposta abaixo de 500 conta: a requisição foi atendida.
+    private static double esperarPrimeiraResposta(Process processo, int porta, long inicio) throws InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + CAMINHO_PRIMEIRA_REQUISICAO))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long limite = inicio + LIMITE_INICIALIZACAO.toNanos();
+
+        while (System.nanoTime() < limite) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException("A aplicação terminou antes de responder (código " + processo.exitValue() + ")");
+            }
+            try {
+                HttpResponse<Void> resposta = CLIENTE.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                if (resposta.statusCode() < 500) {
+                    return (System.nanoTime() - inicio) / 1_000_000.0;
+                }
+            } catch (IOException e) {
+                // Servidor ainda não está aceitando conexões
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("A aplicação não respondeu em " + LIMITE_INICIALIZACAO.toSeconds() + " s");
+    }
+
+    private static void lerSaida(Process processo, CompletableFuture<Double> spring) {
+        try (BufferedReader saida = new BufferedReader(
+                new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = saida.readLine()) != null) {
+                Matcher inicioSpring = LOG_INICIO.matcher(linha);
+                if (inicioSpring.find()) {
+                    spring.complete(Double.parseDouble(inicioSpring.group(1)) * 1000);
+                }
+            }
+        } catch (IOException e) {
+            // O processo foi encerrado durante a leitura
+        }
+        spring.complete(Double.NaN);
+    }
+
+    // Memória residente (VmRSS) do processo, em MB. NaN fora do Linux.
+    private static double lerRssMb(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.isReadable(status)) {
+            return Double.NaN;
+        }
+        for (String linha : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+            // Ex: "VmRSS:	  245760 kB"
+            if (linha.startsWith("VmRSS:")) {
+                String kb = linha.substring("VmRSS:".length()).replace("kB", "").trim();
+                return Long.parseLong(kb) / 1024.0;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static void encerrar(Process processo) throws InterruptedException {
+        processo.destroy();
+        if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+            processo.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void imprimir(String modo, List<double[]> medidas) {
+        String[] nomes = { "primeira (ms)", "spring (ms)", "rss (MB)" };
+        for (int coluna = 0; coluna < nomes.length; coluna++) {
+            final int indice = coluna;
+            double[] valores = medidas.stream().mapToDouble(m -> m[indice]).sorted().toArray();
+            double mediana = valores.length % 2 == 1
+                    ? valores[valores.length / 2]
+                    : (valores[valores.length / 2 - 1] + valores[valores.length / 2]) / 2;
+            System.out.printf(Locale.ROOT, "%-8s %-13s %9.0f %13.0f %13.0f%n", modo, nomes[coluna],
+                    mediana, valores[0], valores[valores.length - 1]);
+        }
+    }
+}
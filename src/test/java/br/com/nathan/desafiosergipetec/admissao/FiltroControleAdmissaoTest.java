@@ -0,0 +1,56 @@
+package br.com.nathan.desafiosergipetec.admissao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroControleAdmissaoTest {
+
+    private final MeterRegistry registroMetricas = new SimpleMeterRegistry();
+    private final FiltroControleAdmissao filtro = new FiltroControleAdmissao(registroMetricas, true, 10, 1);
+
+    @Test
+    void requisicaoComumLiberaAVagaAoSairDoFiltro() throws Exception {
+        FilterChain cadeia = (requisicao, resposta) -> assertThat(emUso("pedidos_consulta")).isEqualTo(1);
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/pedidos/buscar"), new MockHttpServletResponse(), cadeia);
+
+        assertThat(emUso("pedidos_consulta")).isZero();
+    }
+
+    @Test
+    void respostaAssincronaMantemAVagaAteTerminar() throws Exception {
+        MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/pedidos/relatorios/mensal");
+        requisicao.setAsyncSupported(true);
+        MockHttpServletResponse resposta = new MockHttpServletResponse();
+
+        // Como um StreamingResponseBody: o controlador inicia o modo assíncrono e a thread sai do filtro
+        filtro.doFilter(requisicao, resposta, (req, res) -> req.startAsync(req, res));
+
+        assertThat(emUso("pedidos_consulta")).isEqualTo(1);
+
+        ((MockAsyncContext) requisicao.getAsyncContext()).complete();
+
+        assertThat(emUso("pedidos_consulta")).isZero();
+    }
+
+    @Test
+    void rotaTrocaOsIdsPorMarcador() {
+        assertThat(FiltroControleAdmissao.rotaDaRequisicao("GET", "/api/pedidos/42"))
+                .isEqualTo("GET /api/pedidos/{id}");
+        assertThat(FiltroControleAdmissao.rotaDaRequisicao("GET", "/api/clientes/7/pedidos"))
+                .isEqualTo("GET /api/clientes/{id}/pedidos");
+        assertThat(FiltroControleAdmissao.rotaDaRequisicao("POST", "/api/pedidos"))
+                .isEqualTo("POST /api/pedidos");
+    }
+
+    private double emUso(String grupo) {
+        return registroMetricas.get("admissao.em_uso").tag("grupo", grupo).gauge().value();
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.nathan.desafiosergipetec.admissao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GrupoAdmissaoTest {
+
+    @Test
+    void criacaoDePedidos() {
+        assertThat(GrupoAdmissao.daRequisicao("POST", "/api/pedidos")).isEqualTo(GrupoAdmissao.PEDIDOS_SALVAR);
+    }
+
+    @Test
+    void buscasHistoricoERelatoriosDePedidos() {
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/pedidos/buscar")).isEqualTo(GrupoAdmissao.PEDIDOS_CONSULTA);
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/pedidos/todos")).isEqualTo(GrupoAdmissao.PEDIDOS_CONSULTA);
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/pedidos/relatorios/mensal"))
+                .isEqualTo(GrupoAdmissao.PEDIDOS_CONSULTA);
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/clientes/42/pedidos"))
+                .isEqualTo(GrupoAdmissao.PEDIDOS_CONSULTA);
+    }
+
+    @Test
+    void demaisRotasDaApi() {
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/pedidos/42")).isEqualTo(GrupoAdmissao.GERAL);
+        assertThat(GrupoAdmissao.daRequisicao("POST", "/api/pedidos/cotacao")).isEqualTo(GrupoAdmissao.GERAL);
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/pedidos")).isEqualTo(GrupoAdmissao.GERAL);
+        assertThat(GrupoAdmissao.daRequisicao("POST", "/api/pedidos/buscar")).isEqualTo(GrupoAdmissao.GERAL);
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/clientes/42")).isEqualTo(GrupoAdmissao.GERAL);
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/clientes/42/pedidos/extra")).isEqualTo(GrupoAdmissao.GERAL);
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/produtos/lote")).isEqualTo(GrupoAdmissao.GERAL);
+        assertThat(GrupoAdmissao.daRequisicao("POST", "/api/reservas")).isEqualTo(GrupoAdmissao.GERAL);
+    }
+
+    @Test
+    void rotasAtendidasDaMemoriaOuForaDaApiNaoPassamPeloControle() {
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/analytics")).isNull();
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/api/ranking/produtos")).isNull();
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/menu.html")).isNull();
+        assertThat(GrupoAdmissao.daRequisicao("GET", "/actuator/health")).isNull();
+    }
+
+    @Test
+    void gruposRepartemOPoolSemUltrapassarOTotal() {
+        for (int tamanhoPool = 3; tamanhoPool <= 100; tamanhoPool++) {
+            int soma = 0;
+            for (GrupoAdmissao grupo : GrupoAdmissao.values()) {
+                assertThat(grupo.limiteMaximo(tamanhoPool)).as("pool %d, %s", tamanhoPool, grupo).isPositive();
+                soma += grupo.limiteMaximo(tamanhoPool);
+            }
+            assertThat(soma).as("pool %d", tamanhoPool).isEqualTo(tamanhoPool);
+
+            // A criação de pedidos tem a maior parte, reservada para ela
+            assertThat(GrupoAdmissao.PEDIDOS_SALVAR.limiteMaximo(tamanhoPool))
+                    .isGreaterThanOrEqualTo(GrupoAdmissao.GERAL.limiteMaximo(tamanhoPool))
+                    .isGreaterThanOrEqualTo(GrupoAdmissao.PEDIDOS_CONSULTA.limiteMaximo(tamanhoPool))
+                    .isGreaterThanOrEqualTo((int) (tamanhoPool * 0.4));
+        }
+    }
+
+    @Test
+    void repartePoolPadrao() {
+        assertThat(GrupoAdmissao.PEDIDOS_SALVAR.limiteMaximo(10)).isEqualTo(4);
+        assertThat(GrupoAdmissao.GERAL.limiteMaximo(10)).isEqualTo(3);
+        assertThat(GrupoAdmissao.PEDIDOS_CONSULTA.limiteMaximo(10)).isEqualTo(3);
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.nathan.desafiosergipetec.admissao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitadorAdaptativoTest {
+
+    private static final long RAPIDA = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long LENTA = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void comecaNaMetadeDoMaximoERejeitaQuandoNaoHaFila() throws InterruptedException {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(1, 10, 0, 0);
+
+        assertThat(limitador.getLimite()).isEqualTo(5);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limitador.adquirir()).isTrue();
+        }
+        assertThat(limitador.adquirir()).isFalse();
+        assertThat(limitador.getEmUso()).isEqualTo(5);
+    }
+
+    @Test
+    void aumentoAditivoAteOMaximoComLatenciaEstavel() throws InterruptedException {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(1, 10, 0, 0);
+
+        // A primeira requisição só define a referência da rota
+        concluir(limitador, "GET /api/pedidos/buscar", RAPIDA);
+        assertThat(limitador.getLimite()).isEqualTo(5);
+
+        // +1/limite por requisição: 6 requisições levam o limite de 5 para pouco mais de 6
+        for (int i = 0; i < 6; i++) {
+            concluir(limitador, "GET /api/pedidos/buscar", RAPIDA);
+        }
+        assertThat(limitador.getLimite()).isEqualTo(6);
+
+        for (int i = 0; i < 1000; i++) {
+            concluir(limitador, "GET /api/pedidos/buscar", RAPIDA);
+        }
+        assertThat(limitador.getLimite()).isEqualTo(10);
+    }
+
+    @Test
+    void reducaoMultiplicativaQuandoALatenciaPassaDaTolerancia() throws InterruptedException {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(2, 10, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            concluir(limitador, "GET /api/pedidos/buscar", RAPIDA);
+        }
+        assertThat(limitador.getLimite()).isEqualTo(10);
+
+        // Latência 100x acima da referência: limite * 0,9
+        concluir(limitador, "GET /api/pedidos/buscar", LENTA);
+        assertThat(limitador.getLimite()).isEqualTo(9);
+
+        // Nunca abaixo do mínimo
+        for (int i = 0; i < 100; i++) {
+            concluir(limitador, "GET /api/pedidos/buscar", LENTA);
+        }
+        assertThat(limitador.getLimite()).isEqualTo(2);
+    }
+
+    @Test
+    void rotaNaturalmenteLentaNaoReduzOLimite() throws InterruptedException {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(1, 10, 0, 0);
+
+        // /todos é sempre bem mais lenta que a busca por ID, mas é comparada apenas com ela mesma
+        for (int i = 0; i < 1000; i++) {
+            concluir(limitador, "GET /api/pedidos/buscar", RAPIDA);
+            concluir(limitador, "GET /api/pedidos/todos", LENTA);
+        }
+        assertThat(limitador.getLimite()).isEqualTo(10);
+
+        // Já a mesma rota ficando lenta é congestionamento
+        concluir(limitador, "GET /api/pedidos/buscar", LENTA);
+        assertThat(limitador.getLimite()).isEqualTo(9);
+    }
+
+    @Test
+    void liberarAbreVagaParaQuemEstaNaFila() throws InterruptedException {
+        LimitadorAdaptativo limitador = new LimitadorAdaptativo(1, 2, 1, 5_000);
+        assertThat(limitador.adquirir()).isTrue();
+
+        Thread liberadora = Thread.ofVirtual().start(() -> {
+            // Espera a segunda requisição entrar na fila antes de liberar a vaga
+            while (!limitador.temAguardando()) {
+                Thread.onSpinWait();
+            }
+            limitador.liberar("GET /api/pedidos/todos", RAPIDA);
+        });
+
+        assertThat(limitador.adquirir()).isTrue();
+        liberadora.join();
+        assertThat(limitador.temAguardando()).isFalse();
+        assertThat(limitador.getEmUso()).isEqualTo(1);
+    }
+
+    private static void concluir(LimitadorAdaptativo limitador, String rota, long latenciaNanos)
+            throws InterruptedException {
+        assertThat(limitador.adquirir()).isTrue();
+        limitador.liberar(rota, latenciaNanos);
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.nathan.desafiosergipetec.analitico;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.otds.OTDGrupoAnalitico;
+import br.com.nathan.desafiosergipetec.otds.OTDResultadoAnalitico;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedidoArquivado;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MotorAnaliticoTest {
+
+    private static final int TAMANHO_LOTE = 500_000;
+    private static final LocalDate HOJE = LocalDate.of(2026, 3, 10);
+
+    private final RepositorioPedido repositorioPedido = mock(RepositorioPedido.class);
+    private final RepositorioPedidoArquivado repositorioArquivo = mock(RepositorioPedidoArquivado.class);
+
+    @Test
+    void totalSomaOsItensEContaCadaPedidoUmaVez() {
+        // Pedido 1: 2 x R$ 10,00 + 1 x R$ 5,00 com 10% de desconto. Pedido 2: 1 x R$ 20,00.
+        MotorAnalitico motor = carregado(List.of(
+                linha(1, 1, 10, 100, HOJE, 2, 1000, 0, true),
+                linha(2, 1, 20, 100, HOJE, 1, 500, 10, false),
+                linha(3, 2, 10, 200, HOJE, 1, 2000, 0, true)));
+
+        OTDGrupoAnalitico total = motor.consultar(Agrupamento.TOTAL, null, null, null, null).getGrupos().getFirst();
+
+        assertThat(total.getFaturamento()).isEqualByComparingTo("44.50");
+        assertThat(total.getFaturamentoBruto()).isEqualByComparingTo("45.00");
+        assertThat(total.getDescontoConcedido()).isEqualByComparingTo("0.50");
+        assertThat(total.getQuantidadeItens()).isEqualTo(4);
+        assertThat(total.getPedidos()).isEqualTo(2);
+        assertThat(total.getTicketMedio()).isEqualByComparingTo("22.25");
+    }
+
+    @Test
+    void descontoContaPedidosDistintosEmCadaFaixa() {
+        // O pedido 1 tem dois itens com 10% e um sem desconto: entra uma vez em cada faixa
+        MotorAnalitico motor = carregado(List.of(
+                linha(1, 1, 10, 100, HOJE, 1, 1000, 10, true),
+                linha(2, 1, 20, 100, HOJE, 1, 1000, 10, false),
+                linha(3, 1, 30, 100, HOJE, 1, 1000, 0, false),
+                linha(4, 2, 10, 200, HOJE, 1, 1000, 10, true)));
+
+        List<OTDGrupoAnalitico> grupos = motor.consultar(Agrupamento.DESCONTO, null, null, null, null).getGrupos();
+
+        assertThat(grupos).extracting(OTDGrupoAnalitico::getChave).containsExactly("10%", "0%");
+        assertThat(grupos).extracting(OTDGrupoAnalitico::getPedidos).containsExactly(2L, 1L);
+        assertThat(grupos).extracting(OTDGrupoAnalitico::getQuantidadeItens).containsExactly(3L, 1L);
+        assertThat(grupos.getFirst().getTicketMedio()).isEqualByComparingTo("13.50");
+    }
+
+    @Test
+    void produtoRepetidoNoMesmoPedidoContaUmPedido() {
+        MotorAnalitico motor = carregado(List.of(
+                linha(1, 1, 10, 100, HOJE, 1, 1000, 0, true),
+                linha(2, 1, 10, 100, HOJE, 3, 1000, 0, false),
+                linha(3, 2, 20, 100, HOJE, 1, 9000, 0, true)));
+
+        List<OTDGrupoAnalitico> grupos = motor.consultar(Agrupamento.PRODUTO, null, null, null, null).getGrupos();
+
+        // Ordenados pelo maior faturamento
+        assertThat(grupos).extracting(OTDGrupoAnalitico::getChave).containsExactly("20", "10");
+        assertThat(grupos.get(1).getPedidos()).isEqualTo(1);
+        assertThat(grupos.get(1).getQuantidadeItens()).isEqualTo(4);
+
+        // Filtro de produto com agrupamento por dia: o mesmo pedido também conta uma vez
+        OTDGrupoAnalitico dia = motor.consultar(Agrupamento.DIA, null, null, 10L, null).getGrupos().getFirst();
+        assertThat(dia.getPedidos()).isEqualTo(1);
+        assertThat(dia.getFaturamento()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    void pedidoDivididoEntrePartesDaVarreduraContaUmaVez() {
+        // Os dois itens de cada pedido ficam em metades opostas da fotografia, caindo em partes diferentes da varredura
+        int pedidos = 100_000;
+        List<Object[]> linhas = new ArrayList<>(2 * pedidos);
+        for (int p = 1; p <= pedidos; p++) {
+            linhas.add(linha(p, p, 10, 100, HOJE, 1, 100, 0, true));
+        }
+        for (int p = 1; p <= pedidos; p++) {
+            linhas.add(linha(pedidos + p, p, 10, 100, HOJE, 1, 100, 0, false));
+        }
+        MotorAnalitico motor = carregado(linhas);
+
+        OTDGrupoAnalitico produto = motor.consultar(Agrupamento.PRODUTO, null, null, null, null).getGrupos().getFirst();
+
+        assertThat(produto.getPedidos()).isEqualTo(pedidos);
+        assertThat(produto.getQuantidadeItens()).isEqualTo(2L * pedidos);
+    }
+
+    @Test
+    void filtrosDePeriodoEClienteEOrdemCronologica() {
+        MotorAnalitico motor = carregado(List.of(
+                linha(1, 1, 10, 100, HOJE.minusDays(40), 1, 1000, 0, true),
+                linha(2, 2, 10, 100, HOJE.minusDays(1), 1, 2000, 0, true),
+                linha(3, 3, 10, 200, HOJE.minusDays(1), 1, 4000, 0, true),
+                linha(4, 4, 10, 100, HOJE, 1, 500, 0, true)));
+
+        OTDResultadoAnalitico porDia = motor.consultar(Agrupamento.DIA, HOJE.minusDays(1), HOJE, null, 100L);
+        assertThat(porDia.getGrupos()).extracting(OTDGrupoAnalitico::getChave)
+                .containsExactly(HOJE.minusDays(1).toString(), HOJE.toString());
+        assertThat(porDia.getGrupos()).extracting(OTDGrupoAnalitico::getFaturamento)
+                .containsExactly(new BigDecimal("20.00"), new BigDecimal("5.00"));
+        assertThat(porDia.getLinhasAnalisadas()).isEqualTo(4);
+
+        List<OTDGrupoAnalitico> porMes = motor.consultar(Agrupamento.MES, null, null, null, null).getGrupos();
+        assertThat(porMes).extracting(OTDGrupoAnalitico::getChave).containsExactly("2026-01", "2026-03");
+    }
+
+    @Test
+    void arredondaOFaturamentoUmaUnicaVezPorGrupo() {
+        // Três itens de 0,5 centavo (1 x R$ 0,01 com 50%): somados dão 1,5 centavo, arredondado para R$ 0,02
+        MotorAnalitico motor = carregado(List.of(
+                linha(1, 1, 10, 100, HOJE, 1, 1, 50, true),
+                linha(2, 2, 10, 100, HOJE, 1, 1, 50, true),
+                linha(3, 3, 10, 100, HOJE, 1, 1, 50, true)));
+
+        OTDGrupoAnalitico total = motor.consultar(Agrupamento.TOTAL, null, null, null, null).getGrupos().getFirst();
+
+        assertThat(total.getFaturamento()).isEqualByComparingTo("0.02");
+        assertThat(total.getFaturamentoBruto()).isEqualByComparingTo("0.03");
+    }
+
+    @Test
+    void eventoAntecipaACargaIncremental() {
+        MotorAnalitico motor = carregado(List.<Object[]>of(linha(1, 1, 10, 100, HOJE, 1, 1000, 0, true)));
+        when(repositorioPedido.buscarLinhasItensAposId(1L, TAMANHO_LOTE))
+                .thenReturn(List.<Object[]>of(linha(2, 2, 10, 100, HOJE, 1, 1000, 0, true)));
+
+        motor.aoCriarPedido(new EventoPedidoCriado(null));
+
+        verify(repositorioPedido).buscarLinhasItensAposId(eq(1L), anyInt());
+        assertThat(motor.consultar(Agrupamento.TOTAL, null, null, null, null).getGrupos().getFirst().getPedidos())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void eventosQueChegamComUmaAtualizacaoNaFilaSaoAgrupados() throws InterruptedException {
+        MotorAnalitico motor = carregado(List.<Object[]>of(linha(1, 1, 10, 100, HOJE, 1, 1000, 0, true)));
+        Thread primeiro = new Thread(() -> motor.aoCriarPedido(new EventoPedidoCriado(null)));
+
+        // Segura o monitor do motor, como uma atualização demorada em andamento
+        synchronized (motor) {
+            primeiro.start();
+            while (primeiro.getState() != Thread.State.BLOCKED) {
+                Thread.sleep(1);
+            }
+
+            // O primeiro evento já está na fila: os seguintes retornam sem esperar pelo monitor
+            Thread segundo = new Thread(() -> motor.aoCriarPedido(new EventoPedidoCriado(null)));
+            segundo.start();
+            segundo.join(5_000);
+            assertThat(segundo.isAlive()).isFalse();
+        }
+        primeiro.join(5_000);
+
+        verify(repositorioPedido, times(1)).buscarLinhasItensAposId(eq(1L), anyInt());
+    }
+
+    private MotorAnalitico carregado(List<Object[]> linhas) {
+        when(repositorioArquivo.buscarLinhasItensAposPedido(anyLong(), anyInt())).thenReturn(List.of());
+        when(repositorioPedido.buscarLinhasItensAposId(0L, TAMANHO_LOTE)).thenReturn(linhas);
+
+        MotorAnalitico motor = new MotorAnalitico(repositorioPedido, repositorioArquivo,
+                mock(PlatformTransactionManager.class), TAMANHO_LOTE, 600_000);
+        motor.atualizar();
+        return motor;
+    }
+
+    // Mesmo formato do buscarLinhasItensAposId: id do item, pedido, produto, cliente, dia, quantidade, centavos, desconto, primeiro item
+    private static Object[] linha(long itemId, long pedidoId, long produtoId, long clienteId, LocalDate data,
+            int quantidade, long valorCentavos, int desconto, boolean primeiroItem) {
+        return new Object[] { itemId, pedidoId, produtoId, clienteId, data.toEpochDay(), quantidade, valorCentavos,
+                desconto, primeiroItem };
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.nathan.desafiosergipetec.aquecimento;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CriterioParadaTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private final CriterioParada criterio = new CriterioParada(5, 200, 0.1, 30 * SEGUNDO);
+
+    @Test
+    void rodadaDentroDaToleranciaEmRelacaoAAnterior() {
+        assertThat(criterio.estavel(100, 109)).isTrue();
+        assertThat(criterio.estavel(100, 91)).isTrue();
+        assertThat(criterio.estavel(100, 111)).isFalse();
+        assertThat(criterio.estavel(100, 50)).isFalse();
+
+        // Primeira rodada: não há com o que comparar
+        assertThat(criterio.estavel(-1, 100)).isFalse();
+    }
+
+    @Test
+    void paraQuandoALatenciaEstabilizaDepoisDasRodadasMinimas() {
+        assertThat(criterio.deveParar(4, 3, SEGUNDO)).isFalse();
+        assertThat(criterio.deveParar(5, 2, SEGUNDO)).isFalse();
+        assertThat(criterio.deveParar(5, 3, SEGUNDO)).isTrue();
+    }
+
+    @Test
+    void paraNoTetoDeRodadasMesmoSemEstabilizar() {
+        assertThat(criterio.deveParar(199, 0, SEGUNDO)).isFalse();
+        assertThat(criterio.deveParar(200, 0, SEGUNDO)).isTrue();
+    }
+
+    @Test
+    void paraNoTetoDeTempoMesmoSemEstabilizarNemAtingirAsRodadasMinimas() {
+        assertThat(criterio.tempoEsgotado(30 * SEGUNDO - 1)).isFalse();
+        assertThat(criterio.deveParar(0, 0, 30 * SEGUNDO - 1)).isFalse();
+
+        assertThat(criterio.tempoEsgotado(30 * SEGUNDO)).isTrue();
+        assertThat(criterio.deveParar(0, 0, 30 * SEGUNDO)).isTrue();
+        assertThat(criterio.deveParar(2, 0, 5 * 60 * SEGUNDO)).isTrue();
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.nathan.desafiosergipetec.arquivamento;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedidoArquivado;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServicoArquivamentoTest {
+
+    private static final int IDADE_DIAS = 365;
+
+    private final RepositorioPedidoArquivado repositorioArquivo = mock(RepositorioPedidoArquivado.class);
+
+    @Test
+    void buscaSemDataInicialSempreConsultaOArquivo() {
+        when(repositorioArquivo.buscarDataMaisRecente()).thenReturn(null);
+        ServicoArquivamento servico = criar(60_000);
+
+        assertThat(servico.deveConsultarArquivo(null)).isTrue();
+    }
+
+    @Test
+    void buscaQueComecaDepoisDoPeriodoArquivadoNaoConsultaOArquivo() {
+        LocalDateTime corte = LocalDate.now().minusDays(IDADE_DIAS).atStartOfDay();
+        when(repositorioArquivo.buscarDataMaisRecente()).thenReturn(corte.minusDays(1));
+        ServicoArquivamento servico = criar(60_000);
+
+        assertThat(servico.deveConsultarArquivo(LocalDateTime.now().minusDays(7))).isFalse();
+        assertThat(servico.deveConsultarArquivo(corte)).isFalse();
+    }
+
+    @Test
+    void buscaQueAlcancaOPedidoArquivadoMaisRecenteConsultaOArquivo() {
+        // Arquivo com pedidos mais novos que o corte atual (ex: "arquivamento.idade-dias" foi aumentada depois)
+        LocalDateTime maisRecente = LocalDateTime.now().minusDays(30);
+        when(repositorioArquivo.buscarDataMaisRecente()).thenReturn(maisRecente);
+        ServicoArquivamento servico = criar(60_000);
+
+        assertThat(servico.deveConsultarArquivo(maisRecente)).isTrue();
+        assertThat(servico.deveConsultarArquivo(maisRecente.minusDays(1))).isTrue();
+        assertThat(servico.deveConsultarArquivo(maisRecente.plusSeconds(1))).isFalse();
+    }
+
+    @Test
+    void buscaAnteriorAoCorteConsultaOArquivoMesmoSemPedidosArquivadosConhecidos() {
+        // Outra instância pode ter arquivado estes pedidos depois da última leitura da data
+        when(repositorioArquivo.buscarDataMaisRecente()).thenReturn(null);
+        ServicoArquivamento servico = criar(60_000);
+
+        LocalDateTime corte = LocalDate.now().minusDays(IDADE_DIAS).atStartOfDay();
+        assertThat(servico.deveConsultarArquivo(corte.minusSeconds(1))).isTrue();
+    }
+
+    @Test
+    void dataMaisRecenteELidaDoBancoEReaproveitadaDuranteOCache() {
+        LocalDateTime maisRecente = LocalDateTime.now().minusDays(30);
+        when(repositorioArquivo.buscarDataMaisRecente()).thenReturn(maisRecente);
+        ServicoArquivamento servico = criar(60_000);
+
+        servico.deveConsultarArquivo(maisRecente);
+        servico.deveConsultarArquivo(maisRecente);
+        servico.deveConsultarArquivo(maisRecente);
+
+        verify(repositorioArquivo, times(1)).buscarDataMaisRecente();
+    }
+
+    @Test
+    void semCacheEnxergaOArquivamentoFeitoPorOutraInstancia() {
+        LocalDateTime inicio = LocalDateTime.now().minusDays(20);
+        when(repositorioArquivo.buscarDataMaisRecente()).thenReturn(null);
+        ServicoArquivamento servico = criar(0);
+
+        assertThat(servico.deveConsultarArquivo(inicio)).isFalse();
+
+        when(repositorioArquivo.buscarDataMaisRecente()).thenReturn(inicio.plusDays(1));
+        assertThat(servico.deveConsultarArquivo(inicio)).isTrue();
+    }
+
+    private ServicoArquivamento criar(long cacheDataMs) {
+        return new ServicoArquivamento(repositorioArquivo, mock(RepositorioCliente.class), mock(RepositorioProduto.class),
+                mock(PlatformTransactionManager.class), IDADE_DIAS, 1000, cacheDataMs);
+    }
+}
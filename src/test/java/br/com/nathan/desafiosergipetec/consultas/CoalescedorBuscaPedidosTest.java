@@ -0,0 +1,184 @@
+package br.com.nathan.desafiosergipetec.consultas;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.nathan.desafiosergipetec.entidades.Pedido;
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.otds.OTDResumoPedidos;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescedorBuscaPedidosTest {
+
+    private static final FiltroBuscaPedidos FILTRO = new FiltroBuscaPedidos(null, 1L, null, null, null, null, null);
+
+    @Test
+    void buscasIdenticasSimultaneasCompartilhamUmaExecucao() throws Exception {
+        CoalescedorBuscaPedidos coalescedor = new CoalescedorBuscaPedidos(0);
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Supplier<OTDResumoPedidos> consultaLenta = () -> {
+            execucoes.incrementAndGet();
+            iniciou.countDown();
+            aguardar(liberar);
+            return new OTDResumoPedidos(List.of());
+        };
+
+        CompletableFuture<OTDResumoPedidos> primeira = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> primeira.complete(coalescedor.buscar(FILTRO, consultaLenta)));
+        assertThat(iniciou.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Mesma busca (filtro equivalente) enquanto a primeira ainda está no banco
+        CompletableFuture<OTDResumoPedidos> segunda = new CompletableFuture<>();
+        Thread aguardando = Thread.ofVirtual().start(() -> segunda.complete(coalescedor.buscar(
+                new FiltroBuscaPedidos(null, 1L, " ", null, null, null, null), consultaLenta)));
+        esperarBloquear(aguardando);
+
+        liberar.countDown();
+
+        assertThat(segunda.get(5, TimeUnit.SECONDS)).isSameAs(primeira.get(5, TimeUnit.SECONDS));
+        assertThat(execucoes).hasValue(1);
+    }
+
+    @Test
+    void buscasEmSequenciaSemCacheExecutamNovamente() {
+        CoalescedorBuscaPedidos coalescedor = new CoalescedorBuscaPedidos(0);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        coalescedor.buscar(FILTRO, () -> contar(execucoes));
+        coalescedor.buscar(FILTRO, () -> contar(execucoes));
+
+        assertThat(execucoes).hasValue(2);
+    }
+
+    @Test
+    void cacheReaproveitaOResultadoAteUmNovoPedido() {
+        CoalescedorBuscaPedidos coalescedor = new CoalescedorBuscaPedidos(60_000);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        OTDResumoPedidos primeira = coalescedor.buscar(FILTRO, () -> contar(execucoes));
+        assertThat(coalescedor.buscar(FILTRO, () -> contar(execucoes))).isSameAs(primeira);
+        assertThat(execucoes).hasValue(1);
+
+        coalescedor.aoCriarPedido(new EventoPedidoCriado(new Pedido()));
+
+        assertThat(coalescedor.buscar(FILTRO, () -> contar(execucoes))).isNotSameAs(primeira);
+        assertThat(execucoes).hasValue(2);
+    }
+
+    @Test
+    void falhaDaConsultaChegaATodosEAProximaBuscaTentaDeNovo() throws Exception {
+        CoalescedorBuscaPedidos coalescedor = new CoalescedorBuscaPedidos(0);
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        CompletableFuture<Throwable> falhaPrimeira = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                coalescedor.buscar(FILTRO, () -> {
+                    iniciou.countDown();
+                    aguardar(liberar);
+                    throw new IllegalStateException("banco indisponível");
+                });
+            } catch (RuntimeException e) {
+                falhaPrimeira.complete(e);
+            }
+        });
+        assertThat(iniciou.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Throwable> falhaSegunda = new CompletableFuture<>();
+        Thread aguardando = Thread.ofVirtual().start(() -> {
+            try {
+                coalescedor.buscar(FILTRO, () -> new OTDResumoPedidos(List.of()));
+            } catch (RuntimeException e) {
+                falhaSegunda.complete(e);
+            }
+        });
+        esperarBloquear(aguardando);
+        liberar.countDown();
+
+        assertThat(falhaPrimeira.get(5, TimeUnit.SECONDS)).isInstanceOf(IllegalStateException.class);
+        assertThat(falhaSegunda.get(5, TimeUnit.SECONDS)).isInstanceOf(IllegalStateException.class)
+                .hasMessage("banco indisponível");
+
+        // A execução que falhou não fica presa: a próxima busca consulta o banco de novo
+        AtomicInteger execucoes = new AtomicInteger();
+        coalescedor.buscar(FILTRO, () -> contar(execucoes));
+        assertThat(execucoes).hasValue(1);
+        assertThatThrownBy(() -> coalescedor.buscar(FILTRO, () -> {
+            throw new IllegalArgumentException("outra falha");
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void errorDaConsultaTambemLiberaQuemEsperaEAChave() throws Exception {
+        CoalescedorBuscaPedidos coalescedor = new CoalescedorBuscaPedidos(0);
+        CountDownLatch iniciou = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        CompletableFuture<Throwable> falhaPrimeira = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                coalescedor.buscar(FILTRO, () -> {
+                    iniciou.countDown();
+                    aguardar(liberar);
+                    throw new OutOfMemoryError("simulado");
+                });
+            } catch (Throwable e) {
+                falhaPrimeira.complete(e);
+            }
+        });
+        assertThat(iniciou.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Throwable> falhaSegunda = new CompletableFuture<>();
+        Thread aguardando = Thread.ofVirtual().start(() -> {
+            try {
+                coalescedor.buscar(FILTRO, () -> new OTDResumoPedidos(List.of()));
+            } catch (Throwable e) {
+                falhaSegunda.complete(e);
+            }
+        });
+        esperarBloquear(aguardando);
+        liberar.countDown();
+
+        assertThat(falhaPrimeira.get(5, TimeUnit.SECONDS)).isInstanceOf(OutOfMemoryError.class);
+        assertThat(falhaSegunda.get(5, TimeUnit.SECONDS)).isInstanceOf(OutOfMemoryError.class).hasMessage("simulado");
+
+        AtomicInteger execucoes = new AtomicInteger();
+        coalescedor.buscar(FILTRO, () -> contar(execucoes));
+        assertThat(execucoes).hasValue(1);
+    }
+
+    private static OTDResumoPedidos contar(AtomicInteger execucoes) {
+        execucoes.incrementAndGet();
+        return new OTDResumoPedidos(List.of());
+    }
+
+    private static void aguardar(CountDownLatch trava) {
+        try {
+            assertThat(trava.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A thread que entrou na busca em andamento fica parada no join() até o resultado chegar
+    private static void esperarBloquear(Thread thread) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < limite) {
+            Thread.sleep(1);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.nathan.desafiosergipetec.consultas;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBuscaPedidosTest {
+
+    @Test
+    void textosSaoAparadosEConvertidosParaMinusculas() {
+        FiltroBuscaPedidos filtro = new FiltroBuscaPedidos(null, null, "  João Silva ", null, " NOTEBOOK\t", null, null);
+
+        assertThat(filtro.nomeCliente()).isEqualTo("joão silva");
+        assertThat(filtro.descricaoProduto()).isEqualTo("notebook");
+    }
+
+    @Test
+    void minusculasNaoDependemDoIdiomaDoServidor() {
+        Locale padrao = Locale.getDefault();
+        try {
+            // No turco, "I".toLowerCase() seria "ı" (i sem ponto)
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            FiltroBuscaPedidos filtro = new FiltroBuscaPedidos(null, null, "IVAN", null, "MONITOR", null, null);
+
+            assertThat(filtro.nomeCliente()).isEqualTo("ivan");
+            assertThat(filtro.descricaoProduto()).isEqualTo("monitor");
+        } finally {
+            Locale.setDefault(padrao);
+        }
+    }
+
+    @Test
+    void textosVaziosViramSemFiltro() {
+        FiltroBuscaPedidos filtro = new FiltroBuscaPedidos(null, null, "", null, "   ", null, null);
+
+        assertThat(filtro.nomeCliente()).isNull();
+        assertThat(filtro.descricaoProduto()).isNull();
+        assertThat(filtro).isEqualTo(FiltroBuscaPedidos.semFiltros());
+    }
+
+    @Test
+    void buscasEquivalentesGeramAMesmaChave() {
+        LocalDateTime inicio = LocalDateTime.of(2026, 9, 1, 0, 0);
+        LocalDateTime fim = LocalDateTime.of(2026, 9, 30, 23, 59, 59);
+
+        FiltroBuscaPedidos primeira = new FiltroBuscaPedidos(1L, 2L, "Maria", 3L, "Mouse", inicio, fim);
+        FiltroBuscaPedidos segunda = new FiltroBuscaPedidos(1L, 2L, " maria ", 3L, "MOUSE", inicio, fim);
+
+        assertThat(segunda).isEqualTo(primeira).hasSameHashCodeAs(primeira);
+    }
+
+    @Test
+    void demaisFiltrosSaoPreservados() {
+        LocalDateTime inicio = LocalDateTime.of(2026, 9, 1, 0, 0);
+        FiltroBuscaPedidos filtro = new FiltroBuscaPedidos(1L, 2L, null, 3L, null, inicio, null);
+
+        assertThat(filtro.id()).isEqualTo(1L);
+        assertThat(filtro.clienteId()).isEqualTo(2L);
+        assertThat(filtro.produtoId()).isEqualTo(3L);
+        assertThat(filtro.dataInicio()).isEqualTo(inicio);
+        assertThat(filtro.dataFim()).isNull();
+        assertThat(filtro).isNotEqualTo(new FiltroBuscaPedidos(1L, 2L, null, 4L, null, inicio, null));
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.nathan.desafiosergipetec.consultas;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import br.com.nathan.desafiosergipetec.arquivamento.ServicoArquivamento;
+import br.com.nathan.desafiosergipetec.otds.OTDPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServicoBuscaPedidosTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2026, 3, 10, 14, 30);
+
+    private final RepositorioPedido repositorioPedido = mock(RepositorioPedido.class);
+    private final ServicoArquivamento servicoArquivamento = mock(ServicoArquivamento.class);
+    private final ServicoBuscaPedidos servico = new ServicoBuscaPedidos(repositorioPedido, servicoArquivamento);
+
+    @Test
+    void cursorSeguePeloPedidoAtivoEPeloArquivoComOMesmoPar() {
+        when(repositorioPedido.buscarHistoricoClienteApos(1L, DATA, 50L, Limit.of(3)))
+                .thenReturn(List.of(pedido(40L, DATA)));
+        when(servicoArquivamento.deveConsultarArquivo(null)).thenReturn(true);
+        // Mesma data do ativo com ID menor, e um mais antigo: a ordem é (data, id) decrescente nas duas fontes
+        when(servicoArquivamento.buscarHistoricoCliente(1L, DATA, 50L, 3))
+                .thenReturn(List.of(pedido(8L, DATA.minusDays(2)), pedido(9L, DATA)));
+
+        List<OTDPedido> pagina = servico.buscarHistoricoCliente(1L, DATA, 50L, 3);
+
+        assertThat(pagina).extracting(OTDPedido::getId).containsExactly(40L, 9L, 8L);
+    }
+
+    @Test
+    void paginaCompletaForaDoPeriodoArquivadoNaoConsultaOArquivo() {
+        when(repositorioPedido.buscarHistoricoCliente(1L, Limit.of(2)))
+                .thenReturn(List.of(pedido(40L, DATA), pedido(30L, DATA.minusHours(1))));
+        when(servicoArquivamento.deveConsultarArquivo(DATA.minusHours(1))).thenReturn(false);
+
+        List<OTDPedido> pagina = servico.buscarHistoricoCliente(1L, null, null, 2);
+
+        assertThat(pagina).extracting(OTDPedido::getId).containsExactly(40L, 30L);
+        verify(servicoArquivamento, never()).buscarHistoricoCliente(anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    void juncaoComOArquivoRespeitaOLimite() {
+        when(repositorioPedido.buscarHistoricoCliente(1L, Limit.of(2)))
+                .thenReturn(List.of(pedido(40L, DATA)));
+        when(servicoArquivamento.deveConsultarArquivo(null)).thenReturn(true);
+        when(servicoArquivamento.buscarHistoricoCliente(1L, null, null, 2))
+                .thenReturn(List.of(pedido(9L, DATA.minusDays(1)), pedido(8L, DATA.minusDays(2))));
+
+        assertThat(servico.buscarHistoricoCliente(1L, null, null, 2))
+                .extracting(OTDPedido::getId).containsExactly(40L, 9L);
+    }
+
+    private static OTDPedido pedido(long id, LocalDateTime data) {
+        return new OTDPedido(id, data, 1000L);
+    }
+}
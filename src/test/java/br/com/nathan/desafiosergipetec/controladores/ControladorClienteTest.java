@@ -0,0 +1,121 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import br.com.nathan.desafiosergipetec.consultas.ServicoBuscaPedidos;
+import br.com.nathan.desafiosergipetec.entidades.Cliente;
+import br.com.nathan.desafiosergipetec.otds.OTDPaginaPedidosCliente;
+import br.com.nathan.desafiosergipetec.otds.OTDPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ControladorClienteTest {
+
+    private static final LocalDateTime DATA = LocalDateTime.of(2026, 3, 10, 14, 30);
+
+    private final RepositorioCliente repositorio = mock(RepositorioCliente.class);
+    private final ServicoBuscaPedidos servicoBusca = mock(ServicoBuscaPedidos.class);
+    private final ControladorCliente controlador = new ControladorCliente(repositorio, servicoBusca);
+
+    @Test
+    void identificadorNumericoBuscaPelaChavePrimaria() {
+        Cliente cliente = cliente(42L, "Maria");
+        when(repositorio.buscarPorId(42L)).thenReturn(Optional.of(cliente));
+
+        assertThat(controlador.consultaCliente("42", 20).getBody()).containsExactly(cliente);
+        verify(repositorio, never()).buscarPorNome(anyString(), anyInt());
+    }
+
+    @Test
+    void textoBuscaPorSimilaridadeComLimite() {
+        Cliente cliente = cliente(1L, "Maria");
+        when(repositorio.buscarPorNome("maria", 100)).thenReturn(List.of(cliente));
+
+        assertThat(controlador.consultaCliente(" maria ", 1_000).getBody()).containsExactly(cliente);
+        verify(repositorio, never()).buscarPorId(anyLong());
+    }
+
+    @Test
+    void buscaTextualSemResultadoDevolve404() {
+        when(repositorio.buscarPorNome("ninguem", 20)).thenReturn(List.of());
+
+        assertThat(controlador.consultaCliente("ninguem", 20).getStatusCode().value()).isEqualTo(404);
+    }
+
+    @Test
+    void paginaCheiaDevolveOCursorDoUltimoPedidoMostrado() {
+        when(repositorio.buscarPorId(1L)).thenReturn(Optional.of(cliente(1L, "Maria")));
+        // Pede um a mais que o limite: o terceiro só indica que existe uma próxima página
+        when(servicoBusca.buscarHistoricoCliente(1L, null, null, 3)).thenReturn(new ArrayList<>(List.of(
+                pedido(30L, DATA), pedido(20L, DATA), pedido(10L, DATA.minusDays(1)))));
+
+        OTDPaginaPedidosCliente pagina = controlador.historicoPedidos(1L, null, null, 2).getBody();
+
+        assertThat(pagina.getPedidos()).extracting(OTDPedido::getId).containsExactly(30L, 20L);
+        assertThat(pagina.getPedidos()).extracting(OTDPedido::getNomeCliente).containsOnly("Maria");
+        assertThat(pagina.getProximaData()).isEqualTo(DATA);
+        assertThat(pagina.getProximoId()).isEqualTo(20L);
+    }
+
+    @Test
+    void cursorDaPaginaAnteriorContinuaNaProximaEAUltimaPaginaNaoTemCursor() {
+        when(repositorio.buscarPorId(1L)).thenReturn(Optional.of(cliente(1L, "Maria")));
+        when(servicoBusca.buscarHistoricoCliente(1L, DATA, 20L, 3))
+                .thenReturn(new ArrayList<>(List.of(pedido(10L, DATA.minusDays(1)))));
+
+        OTDPaginaPedidosCliente pagina = controlador.historicoPedidos(1L, DATA, 20L, 2).getBody();
+
+        assertThat(pagina.getPedidos()).extracting(OTDPedido::getId).containsExactly(10L);
+        assertThat(pagina.getProximaData()).isNull();
+        assertThat(pagina.getProximoId()).isNull();
+    }
+
+    @Test
+    void cursorIncompletoDevolve400() {
+        when(repositorio.buscarPorId(1L)).thenReturn(Optional.of(cliente(1L, "Maria")));
+
+        ResponseEntity<OTDPaginaPedidosCliente> semId = controlador.historicoPedidos(1L, DATA, null, 20);
+        ResponseEntity<OTDPaginaPedidosCliente> semData = controlador.historicoPedidos(1L, null, 20L, 20);
+
+        assertThat(semId.getStatusCode().value()).isEqualTo(400);
+        assertThat(semData.getStatusCode().value()).isEqualTo(400);
+        verify(servicoBusca, never()).buscarHistoricoCliente(anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    void tamanhoDaPaginaFicaEntreUmECem() {
+        when(repositorio.buscarPorId(1L)).thenReturn(Optional.of(cliente(1L, "Maria")));
+        when(servicoBusca.buscarHistoricoCliente(anyLong(), any(), any(), anyInt())).thenReturn(new ArrayList<>());
+
+        controlador.historicoPedidos(1L, null, null, 5_000);
+        controlador.historicoPedidos(1L, null, null, 0);
+
+        verify(servicoBusca).buscarHistoricoCliente(1L, null, null, 101);
+        verify(servicoBusca).buscarHistoricoCliente(1L, null, null, 2);
+    }
+
+    private static OTDPedido pedido(long id, LocalDateTime data) {
+        return new OTDPedido(id, data, 1000L);
+    }
+
+    private static Cliente cliente(long id, String nome) {
+        Cliente cliente = new Cliente(nome, "cliente" + id + "@exemplo.com");
+        cliente.setId(id);
+        return cliente;
+    }
+}
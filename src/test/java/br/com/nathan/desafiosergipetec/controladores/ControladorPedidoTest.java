@@ -0,0 +1,122 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.nathan.desafiosergipetec.consultas.CoalescedorBuscaPedidos;
+import br.com.nathan.desafiosergipetec.consultas.ServicoBuscaPedidos;
+import br.com.nathan.desafiosergipetec.entidades.Cliente;
+import br.com.nathan.desafiosergipetec.entidades.Pedido;
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.otds.OTDPedidoRequest;
+import br.com.nathan.desafiosergipetec.otds.OTDProdutoRequest;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+import br.com.nathan.desafiosergipetec.reservas.ServicoReservas;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ControladorPedidoTest {
+
+    private final RepositorioPedido repositorioPedido = mock(RepositorioPedido.class);
+    private final RepositorioCliente repositorioCliente = mock(RepositorioCliente.class);
+    private final RepositorioProduto repositorioProduto = mock(RepositorioProduto.class);
+    private final ServicoReservas servicoReservas = mock(ServicoReservas.class);
+
+    private final ControladorPedido controlador = new ControladorPedido(repositorioPedido, repositorioCliente,
+            repositorioProduto, mock(ApplicationEventPublisher.class), mock(ServicoBuscaPedidos.class),
+            mock(CoalescedorBuscaPedidos.class), servicoReservas);
+
+    @Test
+    void reservaNaoDispensaOEstoqueTravadoDoBanco() {
+        // A reserva segura 5 unidades, mas o banco só tem 3 (ex: estoque corrigido depois da reserva)
+        Produto produto = produto(10L, 3);
+        prepararPedido(produto, Map.of(10L, 5));
+        when(servicoReservas.reservado(10L)).thenReturn(5);
+
+        assertThatThrownBy(() -> controlador.salvar(pedido("reserva-1", item(10L, 5))))
+                .hasMessageContaining("Estoque insuficiente");
+        verify(repositorioPedido, never()).save(any());
+    }
+
+    @Test
+    void produtoRepetidoConsomeOMesmoEstoqueTravado() {
+        Produto produto = produto(10L, 5);
+        prepararPedido(produto, Map.of());
+
+        assertThatThrownBy(() -> controlador.salvar(pedido(null, item(10L, 3), item(10L, 3))))
+                .hasMessageContaining("Estoque insuficiente");
+
+        Produto outro = produto(20L, 6);
+        prepararPedido(outro, Map.of());
+        controlador.salvar(pedido(null, item(20L, 3), item(20L, 3)));
+        assertThat(outro.getQuantidadeEstoque()).isZero();
+    }
+
+    @Test
+    void reservaCobreOQueOsOutrosCarrinhosSeguram() {
+        // 4 unidades no banco, todas seguradas pela reserva deste carrinho
+        Produto produto = produto(10L, 4);
+        prepararPedido(produto, Map.of(10L, 4));
+        when(servicoReservas.reservado(10L)).thenReturn(4);
+
+        controlador.salvar(pedido("reserva-1", item(10L, 4)));
+
+        assertThat(produto.getQuantidadeEstoque()).isZero();
+        verify(repositorioProduto, never()).buscarProdutosDosItens(any());
+    }
+
+    @Test
+    void semReservaORestanteRespeitaOsOutrosCarrinhos() {
+        // 4 unidades no banco, 3 seguradas por outro carrinho
+        Produto produto = produto(10L, 4);
+        prepararPedido(produto, Map.of());
+        when(servicoReservas.reservado(10L)).thenReturn(3);
+
+        assertThatThrownBy(() -> controlador.salvar(pedido(null, item(10L, 2))))
+                .hasMessageContaining("Estoque insuficiente");
+    }
+
+    private void prepararPedido(Produto produto, Map<Long, Integer> reserva) {
+        Cliente cliente = new Cliente("Cliente", "cliente@exemplo.com");
+        cliente.setId(1L);
+        when(repositorioCliente.buscarPorId(1L)).thenReturn(Optional.of(cliente));
+        when(repositorioProduto.travarProdutosDosItens(any())).thenReturn(Map.of(produto.getId(), produto));
+        when(servicoReservas.converter("reserva-1")).thenReturn(reserva);
+        when(repositorioPedido.save(any())).thenAnswer(invocacao -> invocacao.<Pedido>getArgument(0));
+    }
+
+    private static Produto produto(long id, int estoque) {
+        Produto produto = new Produto("Produto " + id, new BigDecimal("10.00"), estoque);
+        produto.setId(id);
+        return produto;
+    }
+
+    private static OTDPedidoRequest pedido(String reservaId, OTDProdutoRequest... itens) {
+        OTDPedidoRequest pedido = new OTDPedidoRequest();
+        pedido.setClienteId(1L);
+        pedido.setReservaId(reservaId);
+        pedido.setItens(List.of(itens));
+        return pedido;
+    }
+
+    private static OTDProdutoRequest item(long produtoId, int quantidade) {
+        OTDProdutoRequest item = new OTDProdutoRequest();
+        item.setProdutoId(produtoId);
+        item.setQuantidade(quantidade);
+        item.setDesconto(0);
+        return item;
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ControladorProdutoTest {
+
+    private final RepositorioProduto repositorio = mock(RepositorioProduto.class);
+    private final ControladorProduto controlador = new ControladorProduto(repositorio);
+
+    @Test
+    void identificadorNumericoBuscaPelaChavePrimaria() {
+        Produto produto = produto(42L, "Caneta azul");
+        when(repositorio.buscarPorId(42L)).thenReturn(Optional.of(produto));
+
+        ResponseEntity<List<Produto>> resposta = controlador.consultaProduto(" 42 ", 20);
+
+        assertThat(resposta.getBody()).containsExactly(produto);
+        verify(repositorio, never()).buscarPorDescricao(anyString(), anyInt());
+    }
+
+    @Test
+    void idInexistenteNaoCaiNaBuscaTextual() {
+        when(repositorio.buscarPorId(7L)).thenReturn(Optional.empty());
+
+        assertThat(controlador.consultaProduto("7", 20).getStatusCode().value()).isEqualTo(404);
+        verify(repositorio, never()).buscarPorDescricao(anyString(), anyInt());
+    }
+
+    @Test
+    void textoBuscaPorSimilaridadeComLimite() {
+        Produto produto = produto(1L, "Caneta azul");
+        when(repositorio.buscarPorDescricao("caneta", 20)).thenReturn(List.of(produto));
+
+        assertThat(controlador.consultaProduto(" caneta ", 20).getBody()).containsExactly(produto);
+        verify(repositorio, never()).buscarPorId(anyLong());
+    }
+
+    @Test
+    void textoComDigitosOuNumeroForaDoLongEhBuscaTextual() {
+        when(repositorio.buscarPorDescricao(anyString(), anyInt())).thenReturn(List.of());
+
+        controlador.consultaProduto("12abc", 20);
+        controlador.consultaProduto("99999999999999999999", 20);
+
+        verify(repositorio).buscarPorDescricao("12abc", 20);
+        verify(repositorio).buscarPorDescricao("99999999999999999999", 20);
+        verify(repositorio, never()).buscarPorId(anyLong());
+    }
+
+    @Test
+    void limiteDaBuscaTextualFicaEntreUmECem() {
+        when(repositorio.buscarPorDescricao(anyString(), anyInt())).thenReturn(List.of());
+
+        controlador.consultaProduto("caneta", 5_000);
+        controlador.consultaProduto("lapis", 0);
+
+        verify(repositorio).buscarPorDescricao("caneta", 100);
+        verify(repositorio).buscarPorDescricao("lapis", 1);
+    }
+
+    private static Produto produto(long id, String descricao) {
+        Produto produto = new Produto(descricao, new BigDecimal("2.50"), 10);
+        produto.setId(id);
+        return produto;
+    }
+}
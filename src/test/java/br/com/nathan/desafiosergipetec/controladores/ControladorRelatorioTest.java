@@ -0,0 +1,117 @@
+package br.com.nathan.desafiosergipetec.controladores;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import br.com.nathan.desafiosergipetec.relatorios.ServicoRelatoriosMensais;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ControladorRelatorioTest {
+
+    private static final String JSON = "{\"pedidos\":[],\"faturamentoTotal\":0.00}";
+
+    private final ServicoRelatoriosMensais servicoRelatorios = mock(ServicoRelatoriosMensais.class);
+    private final ControladorRelatorio controlador = new ControladorRelatorio(servicoRelatorios, 5);
+
+    @Test
+    void aceitaGzipRespeitaOsValoresDeQ() {
+        assertThat(ControladorRelatorio.aceitaGzip("gzip")).isTrue();
+        assertThat(ControladorRelatorio.aceitaGzip("br, GZIP;q=0.8")).isTrue();
+        assertThat(ControladorRelatorio.aceitaGzip("gzip; q=0.001")).isTrue();
+        assertThat(ControladorRelatorio.aceitaGzip("*")).isTrue();
+
+        assertThat(ControladorRelatorio.aceitaGzip(null)).isFalse();
+        assertThat(ControladorRelatorio.aceitaGzip("identity")).isFalse();
+        assertThat(ControladorRelatorio.aceitaGzip("gzip;q=0")).isFalse();
+        assertThat(ControladorRelatorio.aceitaGzip("gzip;q=0.000")).isFalse();
+        assertThat(ControladorRelatorio.aceitaGzip("gzip;q=abc")).isFalse();
+        assertThat(ControladorRelatorio.aceitaGzip("*;q=0")).isFalse();
+
+        // A menção explícita vale mais que o curinga, em qualquer ordem
+        assertThat(ControladorRelatorio.aceitaGzip("gzip;q=0, *")).isFalse();
+        assertThat(ControladorRelatorio.aceitaGzip("*, gzip;q=0")).isFalse();
+        assertThat(ControladorRelatorio.aceitaGzip("*;q=0, gzip")).isTrue();
+    }
+
+    @Test
+    void clienteComGzipRecebeOConteudoCompactado(@TempDir Path diretorio) throws IOException {
+        YearMonth mes = YearMonth.now().minusMonths(1);
+        when(servicoRelatorios.obter(mes)).thenReturn(Optional.of(relatorio(mes, diretorio.resolve("r.json.gz"))));
+
+        ResponseEntity<StreamingResponseBody> resposta = controlador.mensal(mes.toString(), "gzip, deflate");
+
+        assertThat(resposta.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(resposta.getHeaders().getContentLength()).isEqualTo(compactar(JSON).length);
+        assertThat(enviar(resposta)).isEqualTo(compactar(JSON));
+    }
+
+    @Test
+    void clienteSemGzipRecebeODescompactadoMesmoSeOArquivoForApagado(@TempDir Path diretorio) throws IOException {
+        YearMonth mes = YearMonth.now().minusMonths(1);
+        Path arquivo = diretorio.resolve("r.json.gz");
+        when(servicoRelatorios.obter(mes)).thenReturn(Optional.of(relatorio(mes, arquivo)));
+
+        ResponseEntity<StreamingResponseBody> resposta = controlador.mensal(mes.toString(), "gzip;q=0");
+
+        // Uma nova versão do relatório apaga o arquivo antes do envio da resposta
+        Files.delete(arquivo);
+
+        assertThat(resposta.getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(new String(enviar(resposta), StandardCharsets.UTF_8)).isEqualTo(JSON);
+    }
+
+    @Test
+    void mesEmAbertoOuInvalidoRetorna400EMesAindaNaoGeradoRetorna503() {
+        assertThat(controlador.mensal(YearMonth.now().toString(), null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(controlador.mensal("2026-13", null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        YearMonth mes = YearMonth.now().minusMonths(2);
+        when(servicoRelatorios.obter(mes)).thenReturn(Optional.empty());
+        ResponseEntity<StreamingResponseBody> resposta = controlador.mensal(mes.toString(), "gzip");
+
+        assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(resposta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+    }
+
+    private static ServicoRelatoriosMensais.Relatorio relatorio(YearMonth mes, Path arquivo) throws IOException {
+        Files.write(arquivo, compactar(JSON));
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            return new ServicoRelatoriosMensais.Relatorio(mes, new ServicoRelatoriosMensais.Impressao(0, 0), arquivo, conteudo);
+        }
+    }
+
+    private static byte[] compactar(String texto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream saida = new GZIPOutputStream(bytes)) {
+            saida.write(texto.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] enviar(ResponseEntity<StreamingResponseBody> resposta) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        resposta.getBody().writeTo(saida);
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.nathan.desafiosergipetec.financeiro;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de totais de pedidos: aritmética em inteiros (classe Centavos) x BigDecimal (implementação anterior).
+ *
+ * Cenários:
+ * - totalPedido*: total de um pedido a partir dos itens, como no Pedido.recalcularValorTotal
+ * (soma exata de quantidade * valor * (100 - desconto) / 100 e arredondamento HALF_UP no final).
+ * - somaTotais*: soma dos totais de uma listagem de pedidos, como no OTDResumoPedidos.
+ * - linhasBusca*: conversão do total de cada linha da busca de pedidos no construtor do OTDPedido.
+ * Antes a consulta devolvia um NUMERIC (SUM(... / 100.0), lido como BigDecimal) e cada linha fazia
+ * new BigDecimal(valor.toString()).setScale(2, HALF_UP); agora devolve a soma em fração (long) e cada linha
+ * faz Centavos.arredondar. Os dois lados recebem os mesmos totais, cada um no formato que o banco devolvia.
+ *
+ * Os dois lados precisam chegar aos mesmos centavos (conferido no @Setup). As alocações por operação
+ * aparecem na coluna gc.alloc.rate.norm (profiler de GC, ligado no perfil "benchmark").
+ *
+ * Executar: ./mvnw -Pbenchmark -DskipTests verify -Djmh.filtro=CentavosBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CentavosBenchmark {
+
+    // Itens por pedido (totalPedido) e pedidos por listagem (somaTotais)
+    @Param({ "10", "10000" })
+    public int tamanho;
+
+    // Itens: preço como vem do banco (NUMERIC(10, 2)), quantidade e desconto percentual
+    private BigDecimal[] valores;
+    private int[] quantidades;
+    private int[] descontos;
+
+    // Listagem: o mesmo total de cada pedido nas duas representações
+    private BigDecimal[] totaisReais;
+    private long[] totaisCentavos;
+
+    // Busca: o total de cada linha como o banco devolvia antes (NUMERIC com a escala da divisão) e como devolve agora
+    private BigDecimal[] totaisLinhasNumeric;
+    private long[] totaisLinhasFracao;
+
+    @Setup
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        valores = new BigDecimal[tamanho];
+        quantidades = new int[tamanho];
+        descontos = new int[tamanho];
+        totaisReais = new BigDecimal[tamanho];
+        totaisCentavos = new long[tamanho];
+        totaisLinhasNumeric = new BigDecimal[tamanho];
+        totaisLinhasFracao = new long[tamanho];
+
+        for (int i = 0; i < tamanho; i++) {
+            valores[i] = BigDecimal.valueOf(100 + aleatorio.nextInt(1_000_000), 2);
+            quantidades[i] = 1 + aleatorio.nextInt(20);
+            descontos[i] = aleatorio.nextInt(4) == 0 ? aleatorio.nextInt(101) : 0;
+            totaisCentavos[i] = 100 + aleatorio.nextInt(10_000_000);
+            totaisReais[i] = Centavos.paraReais(totaisCentavos[i]);
+
+            // Soma de alguns itens em fração; o NUMERIC equivalente sai da divisão por 100.0 com escala 16 (PostgreSQL)
+            totaisLinhasFracao[i] = Centavos.totalItemEmFracao(quantidades[i], Centavos.deReais(valores[i]), descontos[i])
+                    + aleatorio.nextInt(1_000_000);
+            totaisLinhasNumeric[i] = BigDecimal.valueOf(totaisLinhasFracao[i], 4).setScale(16);
+        }
+
+        if (totalPedidoBigDecimal().compareTo(Centavos.paraReais(totalPedidoCentavos())) != 0
+                || somaTotaisBigDecimal().compareTo(Centavos.paraReais(somaTotaisCentavos())) != 0) {
+            throw new IllegalStateException("Centavos e BigDecimal chegaram a totais diferentes");
+        }
+        for (int i = 0; i < tamanho; i++) {
+            if (linhaBigDecimal(totaisLinhasNumeric[i]).compareTo(Centavos.paraReais(Centavos.arredondar(totaisLinhasFracao[i]))) != 0) {
+                throw new IllegalStateException("Centavos e BigDecimal arredondaram a linha " + i + " de forma diferente");
+            }
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalPedidoBigDecimal() {
+        BigDecimal soma = BigDecimal.ZERO;
+        for (int i = 0; i < tamanho; i++) {
+            soma = soma.add(valores[i]
+                    .multiply(BigDecimal.valueOf(quantidades[i]))
+                    .multiply(BigDecimal.valueOf(100 - descontos[i]))
+                    .movePointLeft(2));
+        }
+        return soma.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long totalPedidoCentavos() {
+        long somaEmFracao = 0;
+        for (int i = 0; i < tamanho; i++) {
+            somaEmFracao += Centavos.totalItemEmFracao(quantidades[i], Centavos.deReais(valores[i]), descontos[i]);
+        }
+        return Centavos.arredondar(somaEmFracao);
+    }
+
+    @Benchmark
+    public BigDecimal somaTotaisBigDecimal() {
+        BigDecimal soma = BigDecimal.ZERO;
+        for (BigDecimal total : totaisReais) {
+            soma = soma.add(total);
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public long somaTotaisCentavos() {
+        long soma = 0;
+        for (long total : totaisCentavos) {
+            soma += total;
+        }
+        return soma;
+    }
+
+    @Benchmark
+    public void linhasBuscaBigDecimal(Blackhole resultado) {
+        for (BigDecimal total : totaisLinhasNumeric) {
+            resultado.consume(linhaBigDecimal(total));
+        }
+    }
+
+    @Benchmark
+    public void linhasBuscaCentavos(Blackhole resultado) {
+        for (long total : totaisLinhasFracao) {
+            resultado.consume(Centavos.arredondar(total));
+        }
+    }
+
+    // Construtor anterior do OTDPedido (o valor chegava como Number)
+    private static BigDecimal linhaBigDecimal(Number valorTotal) {
+        return new BigDecimal(valorTotal.toString()).setScale(2, RoundingMode.HALF_UP);
+    }
+}
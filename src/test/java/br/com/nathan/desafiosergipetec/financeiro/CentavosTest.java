@@ -0,0 +1,75 @@
+package br.com.nathan.desafiosergipetec.financeiro;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CentavosTest {
+
+    @Test
+    void converteReaisParaCentavosEDeVolta() {
+        assertThat(Centavos.deReais(new BigDecimal("12.34"))).isEqualTo(1234L);
+        assertThat(Centavos.deReais(new BigDecimal("12.3"))).isEqualTo(1230L);
+        assertThat(Centavos.deReais(new BigDecimal("12.340"))).isEqualTo(1234L);
+        assertThat(Centavos.deReais(BigDecimal.ZERO)).isZero();
+
+        assertThat(Centavos.paraReais(1234L)).isEqualTo(new BigDecimal("12.34"));
+        assertThat(Centavos.paraReais(5L)).isEqualTo(new BigDecimal("0.05"));
+        assertThat(Centavos.paraReais(0L).scale()).isEqualTo(2);
+    }
+
+    @Test
+    void recusaValorComMaisDeDuasCasasDecimais() {
+        assertThatThrownBy(() -> Centavos.deReais(new BigDecimal("12.345")))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void arredondaMetadeParaLongeDoZero() {
+        // 100 frações = 1 centavo
+        assertThat(Centavos.arredondar(0)).isZero();
+        assertThat(Centavos.arredondar(49)).isZero();
+        assertThat(Centavos.arredondar(50)).isEqualTo(1L);
+        assertThat(Centavos.arredondar(149)).isEqualTo(1L);
+        assertThat(Centavos.arredondar(150)).isEqualTo(2L);
+        assertThat(Centavos.arredondar(123_456)).isEqualTo(1235L);
+
+        assertThat(Centavos.arredondar(-49)).isZero();
+        assertThat(Centavos.arredondar(-50)).isEqualTo(-1L);
+        assertThat(Centavos.arredondar(-150)).isEqualTo(-2L);
+    }
+
+    @Test
+    void totalDoItemComDescontoEmFracao() {
+        // 3 x R$ 10,99 com 15% de desconto = R$ 28,0245 (exato em fração), R$ 28,02 após o arredondamento
+        long fracao = Centavos.totalItemEmFracao(3, 1099, 15);
+
+        assertThat(fracao).isEqualTo(280_245L);
+        assertThat(Centavos.arredondar(fracao)).isEqualTo(2802L);
+        assertThat(Centavos.totalBrutoEmFracao(3, 1099)).isEqualTo(329_700L);
+        assertThat(Centavos.totalItemEmFracao(3, 1099, 100)).isZero();
+    }
+
+    @Test
+    void arredondaUmaUnicaVezComoOCalculoEmBigDecimal() {
+        // Três itens de 0,5 centavo cada (1 x R$ 0,01 com 50% de desconto): somados dão 1,5 centavo, que arredonda para 2.
+        // Arredondar item a item daria 3 centavos.
+        long somaEmFracao = 0;
+        BigDecimal somaEmReais = BigDecimal.ZERO;
+        for (int i = 0; i < 3; i++) {
+            somaEmFracao += Centavos.totalItemEmFracao(1, 1, 50);
+            somaEmReais = somaEmReais.add(new BigDecimal("0.01")
+                    .multiply(BigDecimal.valueOf(1))
+                    .multiply(BigDecimal.valueOf(50))
+                    .movePointLeft(2));
+        }
+
+        assertThat(Centavos.arredondar(somaEmFracao)).isEqualTo(2L);
+        assertThat(Centavos.paraReais(Centavos.arredondar(somaEmFracao)))
+                .isEqualTo(somaEmReais.setScale(2, RoundingMode.HALF_UP));
+    }
+}
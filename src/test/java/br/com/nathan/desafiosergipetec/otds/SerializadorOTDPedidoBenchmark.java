@@ -0,0 +1,134 @@
+package br.com.nathan.desafiosergipetec.otds;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização de uma listagem de OTDPedido: SerializadorOTDPedido (streaming) x serialização padrão do Jackson
+ * (por reflexão e getters), nos três formatos negociados pela API: JSON, CBOR e Smile.
+ *
+ * A versão "padrao" usa um mix-in que desliga o serializador manual e esconde o getter interno
+ * getValorTotalCentavos, produzindo o mesmo conteúdo (conferido no @Setup, comparando os documentos lidos de volta:
+ * no CBOR o serializador manual declara o tamanho de cada objeto, e os bytes não são idênticos aos do padrão).
+ * O @Setup também imprime o tamanho do documento de cada variante, já que o tempo sozinho não mostra
+ * quanto cada uma economiza na rede.
+ *
+ * Executar: ./mvnw -Pbenchmark -DskipTests verify -Djmh.filtro=SerializadorOTDPedido
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SerializadorOTDPedidoBenchmark {
+
+    // Quantidade de linhas da listagem (ex: /api/pedidos/todos)
+    @Param({ "100", "10000", "100000" })
+    public int linhas;
+
+    private List<OTDPedido> pedidos;
+
+    private ObjectMapper jsonManual;
+    private ObjectMapper jsonPadrao;
+    private ObjectMapper cborManual;
+    private ObjectMapper cborPadrao;
+    private ObjectMapper smileManual;
+    private ObjectMapper smilePadrao;
+
+    @Setup
+    public void preparar() {
+        pedidos = new ArrayList<>(linhas);
+        LocalDateTime data = LocalDateTime.of(2026, 1, 1, 8, 0);
+        for (int i = 0; i < linhas; i++) {
+            pedidos.add(new OTDPedido((long) i + 1, "Cliente " + (i % 500), data.plusMinutes(i * 7L),
+                    1_000_000L + i * 12_345L));
+        }
+
+        jsonManual = JsonMapper.builder().build();
+        jsonPadrao = JsonMapper.builder().addMixIn(OTDPedido.class, SerializacaoPadrao.class).build();
+        cborManual = CBORMapper.builder().build();
+        cborPadrao = CBORMapper.builder().addMixIn(OTDPedido.class, SerializacaoPadrao.class).build();
+        smileManual = SmileMapper.builder().build();
+        smilePadrao = SmileMapper.builder().addMixIn(OTDPedido.class, SerializacaoPadrao.class).build();
+
+        // Os dois caminhos precisam gerar o mesmo conteúdo, em todos os formatos, senão a comparação não vale
+        System.out.printf(Locale.ROOT, "%nTamanho do documento com %d linhas:%n", linhas);
+        conferir("JSON", jsonManual, jsonPadrao);
+        conferir("CBOR", cborManual, cborPadrao);
+        conferir("Smile", smileManual, smilePadrao);
+    }
+
+    private void conferir(String formato, ObjectMapper manual, ObjectMapper padrao) {
+        byte[] documentoManual = manual.writeValueAsBytes(pedidos);
+        byte[] documentoPadrao = padrao.writeValueAsBytes(pedidos);
+        if (!manual.readTree(documentoManual).equals(padrao.readTree(documentoPadrao))) {
+            throw new IllegalStateException("O serializador manual gerou um " + formato + " diferente do padrão");
+        }
+        System.out.printf(Locale.ROOT, "  %-5s manual %,d bytes, padrão %,d bytes%n", formato, documentoManual.length, documentoPadrao.length);
+    }
+
+    @Benchmark
+    public byte[] jsonManual() {
+        return jsonManual.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] jsonPadrao() {
+        return jsonPadrao.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] cborManual() {
+        return cborManual.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] cborPadrao() {
+        return cborPadrao.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] smileManual() {
+        return smileManual.writeValueAsBytes(pedidos);
+    }
+
+    @Benchmark
+    public byte[] smilePadrao() {
+        return smilePadrao.writeValueAsBytes(pedidos);
+    }
+
+    // Serialização padrão do Jackson, com os mesmos campos publicados pelo SerializadorOTDPedido.
+    // O Jackson 3 ordena as propriedades alfabeticamente por padrão; a ordem é fixada na mesma do serializador manual.
+    @JsonSerialize(using = ValueSerializer.None.class)
+    @JsonPropertyOrder({ "id", "nomeCliente", "dataPedido", "valorTotal" })
+    abstract static class SerializacaoPadrao {
+
+        @JsonIgnore
+        abstract long getValorTotalCentavos();
+    }
+}
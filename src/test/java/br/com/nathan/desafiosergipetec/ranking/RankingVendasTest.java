@@ -0,0 +1,151 @@
+package br.com.nathan.desafiosergipetec.ranking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.nathan.desafiosergipetec.entidades.Cliente;
+import br.com.nathan.desafiosergipetec.entidades.ItemPedido;
+import br.com.nathan.desafiosergipetec.entidades.Pedido;
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.eventos.EventoPedidoCriado;
+import br.com.nathan.desafiosergipetec.otds.OTDPosicaoRanking;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioCliente;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RankingVendasTest {
+
+    private static final int RETENCAO_DIAS = 7;
+
+    private final RepositorioPedido repositorioPedido = mock(RepositorioPedido.class);
+
+    @Test
+    void janelaConsideraApenasOsUltimosDias() {
+        RankingVendas ranking = carregado(0);
+        vender(ranking, 1, 0, 10L, 10);
+        vender(ranking, 2, 2, 20L, 50);
+        vender(ranking, 3, RETENCAO_DIAS - 1, 30L, 100);
+
+        assertThat(ids(ranking.consultar(true, CriterioRanking.UNIDADES, 1, 10))).containsExactly(10L);
+        assertThat(ids(ranking.consultar(true, CriterioRanking.UNIDADES, 3, 10))).containsExactly(20L, 10L);
+        assertThat(ids(ranking.consultar(true, CriterioRanking.UNIDADES, RETENCAO_DIAS, 10))).containsExactly(30L, 20L, 10L);
+    }
+
+    @Test
+    void diaForaDaRetencaoNaoEntraNaMaiorJanelaEODescarteMantemOsDemais() {
+        RankingVendas ranking = carregado(0);
+        vender(ranking, 1, RETENCAO_DIAS - 1, 10L, 5);
+        vender(ranking, 2, RETENCAO_DIAS, 20L, 5);
+
+        assertThat(ids(ranking.consultar(true, CriterioRanking.UNIDADES, RETENCAO_DIAS, 10))).containsExactly(10L);
+
+        // O último dia da retenção continua contando depois do descarte
+        ranking.descartarDiasAntigos();
+        assertThat(ids(ranking.consultar(true, CriterioRanking.UNIDADES, RETENCAO_DIAS, 10))).containsExactly(10L);
+    }
+
+    @Test
+    void empatesSaoDesfeitosPeloMenorId() {
+        RankingVendas ranking = carregado(0);
+        vender(ranking, 1, 0, 30L, 5);
+        vender(ranking, 2, 0, 10L, 5);
+        vender(ranking, 3, 0, 20L, 5);
+        vender(ranking, 4, 0, 40L, 1);
+
+        List<OTDPosicaoRanking> posicoes = ranking.consultar(true, CriterioRanking.UNIDADES, 1, 2);
+
+        assertThat(ids(posicoes)).containsExactly(10L, 20L);
+        assertThat(posicoes).extracting(OTDPosicaoRanking::getPosicao).containsExactly(1, 2);
+        assertThat(ids(ranking.consultar(true, CriterioRanking.UNIDADES, 1, 4))).containsExactly(10L, 20L, 30L, 40L);
+    }
+
+    @Test
+    void faturamentoConsideraODescontoESomaProdutosEClientes() {
+        RankingVendas ranking = carregado(0);
+        // 3 x R$ 10,00 com 10% de desconto = R$ 27,00 para o produto 10 e para o cliente 100
+        ranking.aoCriarPedido(new EventoPedidoCriado(pedido(1, 100L, 0, 10L, 3, 10)));
+
+        OTDPosicaoRanking produto = ranking.consultar(true, CriterioRanking.FATURAMENTO, 1, 10).getFirst();
+        OTDPosicaoRanking cliente = ranking.consultar(false, CriterioRanking.FATURAMENTO, 1, 10).getFirst();
+
+        assertThat(produto.getFaturamento()).isEqualByComparingTo(new BigDecimal("27.00"));
+        assertThat(produto.getUnidades()).isEqualTo(3);
+        assertThat(cliente.getId()).isEqualTo(100L);
+        assertThat(cliente.getFaturamento()).isEqualByComparingTo(new BigDecimal("27.00"));
+    }
+
+    @Test
+    void comVendasChegandoORankingERecalculadoNoMaximoUmaVezPorIntervalo() {
+        RankingVendas ranking = carregado(60_000);
+        vender(ranking, 1, 0, 10L, 5);
+        List<OTDPosicaoRanking> primeira = ranking.consultar(true, CriterioRanking.UNIDADES, 1, 10);
+
+        vender(ranking, 2, 0, 20L, 50);
+
+        assertThat(ranking.consultar(true, CriterioRanking.UNIDADES, 1, 10)).isSameAs(primeira);
+    }
+
+    @Test
+    void semIntervaloCadaVendaApareceNaProximaConsulta() {
+        RankingVendas ranking = carregado(0);
+        vender(ranking, 1, 0, 10L, 5);
+        List<OTDPosicaoRanking> primeira = ranking.consultar(true, CriterioRanking.UNIDADES, 1, 10);
+
+        // Sem vendas novas o resultado guardado é reaproveitado
+        assertThat(ranking.consultar(true, CriterioRanking.UNIDADES, 1, 10)).isSameAs(primeira);
+
+        vender(ranking, 2, 0, 20L, 50);
+        assertThat(ids(ranking.consultar(true, CriterioRanking.UNIDADES, 1, 10))).containsExactly(20L, 10L);
+    }
+
+    @Test
+    void pedidoJaSomadoNaCargaNaoEContadoDeNovo() {
+        when(repositorioPedido.buscarIdsPedidosDesde(any())).thenReturn(List.of(7L));
+        when(repositorioPedido.somarVendasPorDiaProdutoCliente(any())).thenReturn(List.<Object[]>of(
+                new Object[] { LocalDate.now().toEpochDay(), 10L, 100L, 5_000L * 100, 5L }));
+        RankingVendas ranking = carregado(0);
+
+        vender(ranking, 7, 0, 10L, 5);
+        vender(ranking, 8, 0, 10L, 2);
+
+        assertThat(ranking.consultar(true, CriterioRanking.UNIDADES, 1, 10).getFirst().getUnidades()).isEqualTo(7);
+    }
+
+    private RankingVendas carregado(long intervaloAtualizacaoMs) {
+        RankingVendas ranking = new RankingVendas(repositorioPedido, mock(RepositorioProduto.class),
+                mock(RepositorioCliente.class), mock(PlatformTransactionManager.class), RETENCAO_DIAS, intervaloAtualizacaoMs);
+        ranking.carregarHistorico();
+        return ranking;
+    }
+
+    private static void vender(RankingVendas ranking, long pedidoId, int diasAtras, long produtoId, int quantidade) {
+        ranking.aoCriarPedido(new EventoPedidoCriado(pedido(pedidoId, 100L, diasAtras, produtoId, quantidade, 0)));
+    }
+
+    // Pedido com um único item de R$ 10,00
+    private static Pedido pedido(long id, long clienteId, int diasAtras, long produtoId, int quantidade, int desconto) {
+        Cliente cliente = new Cliente("Cliente " + clienteId, null);
+        cliente.setId(clienteId);
+        Produto produto = new Produto("Produto " + produtoId, new BigDecimal("10.00"), 100);
+        produto.setId(produtoId);
+
+        Pedido pedido = new Pedido(cliente);
+        pedido.setId(id);
+        pedido.setDataPedido(LocalDate.now().minusDays(diasAtras).atTime(12, 0));
+        pedido.adicionarItem(new ItemPedido(produto, pedido, new BigDecimal("10.00"), quantidade, desconto));
+        return pedido;
+    }
+
+    private static List<Long> ids(List<OTDPosicaoRanking> posicoes) {
+        return posicoes.stream().map(OTDPosicaoRanking::getId).toList();
+    }
+}
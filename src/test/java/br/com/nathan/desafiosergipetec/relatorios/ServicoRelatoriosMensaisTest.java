@@ -0,0 +1,99 @@
+package br.com.nathan.desafiosergipetec.relatorios;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import br.com.nathan.desafiosergipetec.consultas.ServicoBuscaPedidos;
+import br.com.nathan.desafiosergipetec.otds.OTDResumoPedidos;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioPedido;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ServicoRelatoriosMensaisTest {
+
+    private static final YearMonth MES = YearMonth.now().minusMonths(1);
+
+    private final ServicoBuscaPedidos servicoBusca = mock(ServicoBuscaPedidos.class);
+    private final RepositorioPedido repositorioPedido = mock(RepositorioPedido.class);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void primeiraConsultaGeraEmSegundoPlanoEAsSeguintesReaproveitam() {
+        impressaoNoBanco(10, 500);
+        ServicoRelatoriosMensais servico = servico();
+
+        // O executor do teste roda a geração na hora, mas a primeira resposta já foi decidida (503)
+        assertThat(servico.obter(MES)).isEmpty();
+        ServicoRelatoriosMensais.Relatorio relatorio = servico.obter(MES).orElseThrow();
+
+        assertThat(relatorio.impressao()).isEqualTo(new ServicoRelatoriosMensais.Impressao(10, 500));
+        assertThat(servico.obter(MES)).containsSame(relatorio);
+        verify(servicoBusca, times(1)).buscarAtivosEArquivados(any());
+    }
+
+    @Test
+    void verificacaoSoRefazORelatorioQuandoAImpressaoMuda() throws IOException {
+        impressaoNoBanco(10, 500);
+        ServicoRelatoriosMensais servico = servico();
+        servico.atualizarMesesEncerrados();
+        ServicoRelatoriosMensais.Relatorio original = servico.obter(MES).orElseThrow();
+
+        // Mesma impressão: nada é refeito
+        servico.atualizarMesesEncerrados();
+        assertThat(servico.obter(MES)).containsSame(original);
+        verify(servicoBusca, times(1)).buscarAtivosEArquivados(any());
+
+        // Pedido atrasado no mês: nova versão, e a anterior sai do disco
+        impressaoNoBanco(11, 900);
+        servico.atualizarMesesEncerrados();
+        ServicoRelatoriosMensais.Relatorio novo = servico.obter(MES).orElseThrow();
+
+        assertThat(novo.impressao()).isEqualTo(new ServicoRelatoriosMensais.Impressao(11, 900));
+        assertThat(arquivos()).containsExactly(novo.arquivo().getFileName().toString());
+        verify(servicoBusca, times(2)).buscarAtivosEArquivados(any());
+    }
+
+    @Test
+    void novaInstanciaReaproveitaOArquivoGravado() {
+        impressaoNoBanco(10, 500);
+        servico().atualizarMesesEncerrados();
+
+        ServicoRelatoriosMensais.Relatorio relatorio = servico().obter(MES).orElseThrow();
+
+        assertThat(relatorio.impressao()).isEqualTo(new ServicoRelatoriosMensais.Impressao(10, 500));
+        assertThat(relatorio.conteudo().remaining()).isPositive();
+        verify(servicoBusca, times(1)).buscarAtivosEArquivados(any());
+    }
+
+    private ServicoRelatoriosMensais servico() {
+        when(servicoBusca.buscarAtivosEArquivados(any())).thenReturn(new OTDResumoPedidos(List.of()));
+        return new ServicoRelatoriosMensais(servicoBusca, repositorioPedido, JsonMapper.builder().build(),
+                Runnable::run, diretorio.toString(), 1);
+    }
+
+    private void impressaoNoBanco(long quantidade, long maiorId) {
+        when(repositorioPedido.resumirPeriodo(any(), any())).thenReturn(List.<Object[]>of(new Object[] { quantidade, maiorId }));
+    }
+
+    private List<String> arquivos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(arquivo -> arquivo.getFileName().toString()).toList();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.nathan.desafiosergipetec.reservas;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RodaTemporalTest {
+
+    // Mesmo alcance da roda: 4 níveis de 64 posições
+    private static final long ALCANCE = 1L << 24;
+
+    @Test
+    void expiraNoTickAgendado() {
+        RodaTemporal<String> roda = new RodaTemporal<>(0);
+        List<String> expirados = new ArrayList<>();
+
+        roda.agendar("a", 3);
+        roda.agendar("b", 3);
+        roda.agendar("c", 5);
+
+        roda.avancar(2, expirados::add);
+        assertThat(expirados).isEmpty();
+
+        roda.avancar(3, expirados::add);
+        assertThat(expirados).containsExactlyInAnyOrder("a", "b");
+
+        roda.avancar(10, expirados::add);
+        assertThat(expirados).containsExactlyInAnyOrder("a", "b", "c");
+        assertThat(roda.getTamanho()).isZero();
+        assertThat(roda.getTickAtual()).isEqualTo(10);
+    }
+
+    @Test
+    void prazoJaVencidoExpiraNoProximoTick() {
+        RodaTemporal<String> roda = new RodaTemporal<>(100);
+        List<String> expirados = new ArrayList<>();
+
+        roda.agendar("vencido", 50);
+        roda.agendar("agora", 100);
+
+        roda.avancar(101, expirados::add);
+        assertThat(expirados).containsExactlyInAnyOrder("vencido", "agora");
+    }
+
+    @Test
+    void cascataDosNiveisSuperioresExpiraNoTickExato() {
+        // Início desalinhado com as voltas dos níveis, para que as cascatas aconteçam no meio dos prazos
+        long inicio = 1_000_003;
+        RodaTemporal<Long> roda = new RodaTemporal<>(inicio);
+        long[] distancias = { 1, 63, 64, 65, 100, 4095, 4096, 4097, 5000, 262_143, 262_144, 300_000, ALCANCE - 1 };
+        for (long distancia : distancias) {
+            roda.agendar(inicio + distancia, inicio + distancia);
+        }
+
+        Map<Long, Long> expiradoEm = avancarTickATick(roda, inicio + ALCANCE);
+
+        assertThat(expiradoEm).hasSize(distancias.length);
+        expiradoEm.forEach((prazo, tick) -> assertThat(tick).as("prazo %d", prazo).isEqualTo(prazo));
+        assertThat(roda.getTamanho()).isZero();
+    }
+
+    @Test
+    void prazoAlemDoAlcanceDaVoltaCompletaExpiraNoTickExato() {
+        RodaTemporal<Long> roda = new RodaTemporal<>(0);
+        long[] prazos = { ALCANCE, ALCANCE + 10, 2 * ALCANCE + 5 };
+        for (long prazo : prazos) {
+            roda.agendar(prazo, prazo);
+        }
+
+        Map<Long, Long> expiradoEm = avancarTickATick(roda, 2 * ALCANCE + 10);
+
+        assertThat(expiradoEm).hasSize(prazos.length);
+        expiradoEm.forEach((prazo, tick) -> assertThat(tick).as("prazo %d", prazo).isEqualTo(prazo));
+    }
+
+    @Test
+    void avancarVariosTicksDeUmaVezEntregaTodosOsVencidos() {
+        RodaTemporal<Long> roda = new RodaTemporal<>(0);
+        for (long prazo = 1; prazo <= 10_000; prazo += 7) {
+            roda.agendar(prazo, prazo);
+        }
+        List<Long> expirados = new ArrayList<>();
+
+        roda.avancar(5_000, expirados::add);
+        assertThat(expirados).isNotEmpty().allMatch(prazo -> prazo <= 5_000).isSorted();
+        assertThat(expirados).hasSize(715);
+
+        roda.avancar(10_000, expirados::add);
+        assertThat(expirados).hasSize(1429);
+        assertThat(roda.getTamanho()).isZero();
+    }
+
+    // Avança um tick por vez, registrando em que tick cada item expirou
+    private static Map<Long, Long> avancarTickATick(RodaTemporal<Long> roda, long ate) {
+        Map<Long, Long> expiradoEm = new HashMap<>();
+        while (roda.getTickAtual() < ate) {
+            long tick = roda.getTickAtual() + 1;
+            roda.avancar(tick, item -> assertThat(expiradoEm.put(item, tick)).as("expirou duas vezes").isNull());
+        }
+        return expiradoEm;
+    }
+}
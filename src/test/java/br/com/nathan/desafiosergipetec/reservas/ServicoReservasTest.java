@@ -0,0 +1,98 @@
+package br.com.nathan.desafiosergipetec.reservas;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.nathan.desafiosergipetec.entidades.Produto;
+import br.com.nathan.desafiosergipetec.otds.OTDCotacaoPedido;
+import br.com.nathan.desafiosergipetec.otds.OTDItemCotacao;
+import br.com.nathan.desafiosergipetec.otds.OTDProdutoRequest;
+import br.com.nathan.desafiosergipetec.otds.OTDReserva;
+import br.com.nathan.desafiosergipetec.repositorios.RepositorioProduto;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServicoReservasTest {
+
+    private final RepositorioProduto repositorio = mock(RepositorioProduto.class);
+    private final ServicoReservas servico = new ServicoReservas(repositorio, 600, 1000);
+    private final Map<Long, Produto> produtos = new HashMap<>();
+
+    @Test
+    void totalDoPedidoEhArredondadoUmaUnicaVez() {
+        // Três linhas de 1 x R$ 0,01 com 50%: cada linha mostra R$ 0,01, mas o pedido soma 1,5 centavo e fica R$ 0,02
+        cadastrar(1L, "0.01", 10);
+        cadastrar(2L, "0.01", 10);
+        cadastrar(3L, "0.01", 10);
+
+        OTDCotacaoPedido cotacao = servico.cotar(List.of(item(1L, 1, 50), item(2L, 1, 50), item(3L, 1, 50)), null);
+
+        assertThat(cotacao.getItens()).extracting(OTDItemCotacao::getValorTotal)
+                .containsExactly(new BigDecimal("0.01"), new BigDecimal("0.01"), new BigDecimal("0.01"));
+        assertThat(cotacao.getValorTotal()).isEqualByComparingTo("0.02");
+        assertThat(cotacao.getValorBruto()).isEqualByComparingTo("0.03");
+        assertThat(cotacao.getDescontoTotal()).isEqualByComparingTo("0.01");
+        assertThat(cotacao.isDisponivel()).isTrue();
+    }
+
+    @Test
+    void produtoRepetidoConsomeOMesmoEstoque() {
+        cadastrar(10L, "10.00", 5);
+
+        OTDCotacaoPedido cabe = servico.cotar(List.of(item(10L, 3, 0), item(10L, 2, 0)), null);
+        assertThat(cabe.isDisponivel()).isTrue();
+        assertThat(cabe.getValorTotal()).isEqualByComparingTo("50.00");
+
+        OTDCotacaoPedido naoCabe = servico.cotar(List.of(item(10L, 3, 0), item(10L, 3, 0)), null);
+        assertThat(naoCabe.isDisponivel()).isFalse();
+        assertThat(naoCabe.getItens()).extracting(OTDItemCotacao::isDisponivel).containsExactly(true, false);
+        assertThat(naoCabe.getItens().get(1).getMensagem()).startsWith("Estoque insuficiente");
+        // O item recusado não entra nos totais
+        assertThat(naoCabe.getValorTotal()).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void estoqueReservadoPorOutroCarrinhoSoContaParaOProprio() {
+        cadastrar(10L, "10.00", 5);
+        OTDReserva reserva = servico.criar(List.of(item(10L, 4, 0)));
+        assertThat(reserva.getId()).isNotNull();
+
+        assertThat(servico.cotar(List.of(item(10L, 2, 0)), null).isDisponivel()).isFalse();
+        assertThat(servico.cotar(List.of(item(10L, 2, 0)), "outra").isDisponivel()).isFalse();
+        assertThat(servico.cotar(List.of(item(10L, 5, 0)), reserva.getId()).isDisponivel()).isTrue();
+    }
+
+    @Test
+    void itensInvalidosSaoSinalizadosSemDerrubarACotacao() {
+        cadastrar(10L, "10.00", 5);
+
+        OTDCotacaoPedido cotacao = servico.cotar(List.of(item(10L, 1, 0), item(99L, 1, 0), item(10L, 1, 150)), null);
+
+        assertThat(cotacao.isDisponivel()).isFalse();
+        assertThat(cotacao.getItens()).extracting(OTDItemCotacao::getMensagem)
+                .containsExactly(null, "Produto não encontrado: ID 99", "O desconto deve ser entre 0 e 100%.");
+        assertThat(cotacao.getValorTotal()).isEqualByComparingTo("10.00");
+    }
+
+    private void cadastrar(long id, String valor, int estoque) {
+        Produto produto = new Produto("Produto " + id, new BigDecimal(valor), estoque);
+        produto.setId(id);
+        produtos.put(id, produto);
+        when(repositorio.buscarProdutosDosItens(any())).thenReturn(produtos);
+    }
+
+    private static OTDProdutoRequest item(long produtoId, int quantidade, int desconto) {
+        OTDProdutoRequest item = new OTDProdutoRequest();
+        item.setProdutoId(produtoId);
+        item.setQuantidade(quantidade);
+        item.setDesconto(desconto);
+        return item;
+    }
+}